@@ -0,0 +1,49 @@
+package com.project1.JavaCafe;
+
+import com.project1.JavaCafe.Model.AppUser;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on AppUser that drops cached Basic-auth credentials whenever the user row
+ * is updated or deleted, so a password or role change takes effect on the next request.
+ * <p>
+ * The callbacks run at flush, before the change commits. Until then other requests still read the old row
+ * and may cache the old credentials again, so the entries are dropped a second time once the transaction commits.
+ */
+@Component
+public class AppUserChangeListener {
+    // Fields
+    // Provider, because Hibernate creates this listener even in contexts without the web layer (e.g. JPA tests)
+    private final ObjectProvider<BasicAuthCredentialCache> credentialCache;
+
+    // Constructor
+    public AppUserChangeListener(ObjectProvider<BasicAuthCredentialCache> credentialCache) {
+        this.credentialCache = credentialCache;
+    }
+
+    // Methods
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(AppUser user) {
+        Long userId = user.getUserId();
+        invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long userId) {
+        credentialCache.ifAvailable(cache -> cache.invalidateUser(userId));
+    }
+}
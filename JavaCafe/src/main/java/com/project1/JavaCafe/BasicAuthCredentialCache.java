@@ -0,0 +1,116 @@
+package com.project1.JavaCafe;
+
+import com.project1.JavaCafe.DTO.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived memory of Basic-auth credentials that already passed a BCrypt check.
+ * Entries are keyed by an HMAC of "email:password" with a random per-process salt,
+ * so neither the password nor a reusable hash of it is ever stored.
+ * Entries for a user are dropped as soon as that user's row changes (see AppUserChangeListener).
+ * When full, the oldest entry is evicted.
+ */
+@Component
+public class BasicAuthCredentialCache {
+    private record Entry(UserPrincipal principal, long expiresAtMillis) {}
+
+    // Fields
+    // Insertion order, so the eldest entry is evicted first; guarded by itself
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final SecretKeySpec salt;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    // Constructor
+    public BasicAuthCredentialCache(@Value("${basic-auth.cache.ttl-seconds:60}") long ttlSeconds,
+                                    @Value("${basic-auth.cache.max-entries:10000}") int maxEntries) {
+        byte[] saltBytes = new byte[32];
+        new SecureRandom().nextBytes(saltBytes);
+        this.salt = new SecretKeySpec(saltBytes, "HmacSHA256");
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > BasicAuthCredentialCache.this.maxEntries;
+            }
+        };
+    }
+
+    // Methods
+
+    /**
+     * Returns the principal for credentials verified within the TTL, or empty on a miss.
+     */
+    public Optional<UserPrincipal> lookup(String email, String password) {
+        String key = key(email, password);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() >= entry.expiresAtMillis()) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+
+        if (entry != null) {
+            hits.incrementAndGet();
+            return Optional.of(entry.principal());
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Remembers credentials that just passed the full BCrypt check.
+     */
+    public void store(String email, String password, UserPrincipal principal) {
+        String key = key(email, password);
+        Entry entry = new Entry(principal, System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            // Re-inserting moves the key to the end, so it is evicted last
+            entries.remove(key);
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Forgets every cached credential for the user, e.g. after a password or role change.
+     */
+    public void invalidateUser(Long userId) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.principal().userId().equals(userId));
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        synchronized (entries) {
+            return new CacheStatsDTO(hits.get(), misses.get(), entries.size());
+        }
+    }
+
+    private String key(String email, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(salt);
+            byte[] digest = mac.doFinal((email + ":" + password).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -12,16 +12,22 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Optional;
 
+/**
+ * Authenticates "Authorization: Basic" requests against AppUsers, for scripts calling the admin APIs.
+ * Registered on /api/admin/** ahead of JwtInterceptor; requests without a Basic header pass through to it.
+ */
 @Component
 public class BasicAuthInterceptor implements HandlerInterceptor {
     // Fields
     private final AppUserRepository repo;
     private final PasswordEncoder passwordEncoder;
+    private final BasicAuthCredentialCache credentialCache;
 
     // Constructor
-    public BasicAuthInterceptor (AppUserRepository repo, PasswordEncoder passwordEncoder) {
+    public BasicAuthInterceptor (AppUserRepository repo, PasswordEncoder passwordEncoder, BasicAuthCredentialCache credentialCache) {
         this.repo = repo;
         this.passwordEncoder = passwordEncoder;
+        this.credentialCache = credentialCache;
     }
 
     // Methods
@@ -30,33 +36,69 @@ public class BasicAuthInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         String authHeader = request.getHeader("Authorization");
 
-        // is the header there, is it the right kind?
-        if (authHeader != null && authHeader.startsWith("Basic ")){
-            // decode the header to a base 64 string
-            String b64c = authHeader.substring(6);
-            byte[] decoded = Base64.getDecoder().decode(b64c);
-            String creds = new String( decoded, StandardCharsets.UTF_8);
-
-            // split the "username:password"
-            String[] parts = creds.split(":", 2);
-            if (parts.length == 2) {
-                String email = parts[0];
-                String password = parts[1];
-
-                // check if the user is in the db
-                Optional<AppUser> user = repo.findByEmail(email);
-
-                // updated check with hashing check.
-                if(user.isPresent() && passwordEncoder.matches(password, user.get().getPassword())){
-                    request.setAttribute("email", user.get().getEmail());      
-                    request.setAttribute("userRole", user.get().getUserRole()); 
-                    return true;
-                }
-            }
+        // not Basic (e.g. a Bearer token): leave it to the JwtInterceptor
+        if (authHeader == null || !authHeader.startsWith("Basic ")) {
+            return true;
         }
 
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.getWriter().write("Unauthorized: invalid credentials");
-        return false;
+        Optional<UserPrincipal> principal = authenticate(authHeader.substring(6));
+        if (principal.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("Unauthorized: invalid credentials");
+            return false;
+        }
+
+        // Same rule the JwtInterceptor applies to tokens
+        if (request.getRequestURI().startsWith("/api/admin") && !"ADMIN".equals(principal.get().userRole())) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.getWriter().write("Forbidden: Administrator access required.");
+            return false;
+        }
+
+        setIdentity(request, principal.get());
+        return true;
+    }
+
+    private Optional<UserPrincipal> authenticate(String b64c) {
+        // decode the header to a base 64 string
+        String creds;
+        try {
+            creds = new String(Base64.getDecoder().decode(b64c), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        // split the "username:password"
+        String[] parts = creds.split(":", 2);
+        if (parts.length != 2) {
+            return Optional.empty();
+        }
+        String email = AppUser.normalizeEmail(parts[0]);
+        String password = parts[1];
+
+        // recently verified credentials skip the db lookup and the BCrypt check
+        Optional<UserPrincipal> cached = credentialCache.lookup(email, password);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        // check if the user is in the db, with hashing check
+        Optional<AppUser> user = repo.findByEmail(email);
+        if (user.isEmpty() || user.get().getPassword() == null
+                || !passwordEncoder.matches(password, user.get().getPassword())) {
+            return Optional.empty();
+        }
+
+        UserPrincipal principal = new UserPrincipal(
+                user.get().getUserId(), user.get().getEmail(), user.get().getUserRole(), null);
+        credentialCache.store(email, password, principal);
+        return Optional.of(principal);
+    }
+
+    private void setIdentity(HttpServletRequest request, UserPrincipal principal) {
+        request.setAttribute("userId", principal.userId());
+        request.setAttribute("email", principal.email());
+        request.setAttribute("userRole", principal.userRole());
+        request.setAttribute(UserPrincipalArgumentResolver.PRINCIPAL_ATTRIBUTE, principal);
     }
 }
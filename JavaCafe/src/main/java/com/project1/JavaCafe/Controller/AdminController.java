@@ -0,0 +1,188 @@
+package com.project1.JavaCafe.Controller;
+
+import com.project1.JavaCafe.BasicAuthCredentialCache;
+import com.project1.JavaCafe.DTO.CacheStatsDTO;
+import com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO;
+import com.project1.JavaCafe.DTO.OptimisticLockStatsDTO;
+import com.project1.JavaCafe.DTO.OrderEventStatsDTO;
+import com.project1.JavaCafe.DTO.OrderIngestionStatsDTO;
+import com.project1.JavaCafe.DTO.OrderStatusChangeDTO;
+import com.project1.JavaCafe.DTO.PasswordPoolStatsDTO;
+import com.project1.JavaCafe.DTO.ProductsDTO;
+import com.project1.JavaCafe.DTO.SalesAggregationDTO;
+import com.project1.JavaCafe.DTO.SalesSummaryDTO;
+import com.project1.JavaCafe.DTO.StartupTaskDTO;
+import com.project1.JavaCafe.Service.CustomerOrdersService;
+import com.project1.JavaCafe.Service.OptimisticLockRetry;
+import com.project1.JavaCafe.Service.OrderEventBroadcaster;
+import com.project1.JavaCafe.Service.OrderIngestionQueue;
+import com.project1.JavaCafe.Service.PasswordHashingPool;
+import com.project1.JavaCafe.Service.ProductsService;
+import com.project1.JavaCafe.Service.SalesSummaryService;
+import com.project1.JavaCafe.Service.StartupSeeding;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+// Everything under /api/admin is restricted to ADMIN tokens by the JwtInterceptor
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    // Fields
+    private final BasicAuthCredentialCache credentialCache;
+    private final PasswordHashingPool passwordPool;
+    private final SalesSummaryService salesSummary;
+    private final CustomerOrdersService orderService;
+    private final ProductsService productsService;
+    private final OrderIngestionQueue orderIngestion;
+    private final OrderEventBroadcaster orderEvents;
+    private final OptimisticLockRetry lockRetry;
+    private final StartupSeeding startupSeeding;
+
+    // Constructor
+    public AdminController(BasicAuthCredentialCache credentialCache, PasswordHashingPool passwordPool,
+                           SalesSummaryService salesSummary, CustomerOrdersService orderService,
+                           ProductsService productsService, OrderIngestionQueue orderIngestion, OrderEventBroadcaster orderEvents,
+                           OptimisticLockRetry lockRetry, StartupSeeding startupSeeding) {
+        this.credentialCache = credentialCache;
+        this.passwordPool = passwordPool;
+        this.salesSummary = salesSummary;
+        this.orderService = orderService;
+        this.productsService = productsService;
+        this.orderIngestion = orderIngestion;
+        this.orderEvents = orderEvents;
+        this.lockRetry = lockRetry;
+        this.startupSeeding = startupSeeding;
+    }
+
+    // Methods
+    // GET /api/admin/orders?after=120&limit=50 -> open (PENDING/PICKUP) orders after orderId 120, oldest first.
+    // Pass the last orderId of a page as 'after' to get the next one.
+    @GetMapping("/orders")
+    public ResponseEntity<List<CustomerOrdersSummaryDTO>> getOpenOrders(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderService.getAllOrders(after, limit));
+    }
+
+    // PATCH /api/admin/orders/123/status {"from":"PENDING","to":"PICKUP"} -> the updated order.
+    // 409 if the order is no longer in 'from' (another screen moved it first), 400 for a move that isn't allowed.
+    @PatchMapping("/orders/{id}/status")
+    public ResponseEntity<CustomerOrdersSummaryDTO> changeOrderStatus(
+            @PathVariable Integer id,
+            @RequestBody OrderStatusChangeDTO change) {
+        return ResponseEntity.ok(orderService.changeStatus(id, change.from(), change.to()));
+    }
+
+    // PATCH /api/admin/orders/123 {"totalCost":5.50,"orderDate":"2025-01-02"} -> the corrected order.
+    // Only the fields sent are changed; a status change follows the same rules as /status.
+    // 409 if the order was changed by someone else while this edit was being applied.
+    @PatchMapping("/orders/{id}")
+    public ResponseEntity<CustomerOrdersSummaryDTO> updateOrder(
+            @PathVariable Integer id,
+            @RequestBody CustomerOrdersSummaryDTO changes) {
+        return ResponseEntity.ok(orderService.update(id, changes));
+    }
+
+    // PATCH /api/admin/products/7 {"basePrice":3.95,"version":2} -> the updated product.
+    // Only the fields sent are changed. Send the version you read: 409 if the product changed since.
+    @PatchMapping("/products/{id}")
+    public ResponseEntity<ProductsDTO> updateProduct(
+            @PathVariable Long id,
+            @RequestBody ProductsDTO changes) {
+        return ResponseEntity.ok(productsService.update(id, changes));
+    }
+
+    // GET /api/admin/orders/stream?status=PENDING&status=PICKUP -> live board updates (text/event-stream).
+    // Sends orders entering or leaving those statuses (default: the open ones).
+    // Open the stream first, then load GET /api/admin/orders, so nothing is missed in between.
+    // Needs "Authorization: Bearer" (ADMIN), which a browser EventSource can't send: read it with fetch()
+    // and a stream reader (or a fetch-based SSE client).
+    @GetMapping(path = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(@RequestParam(required = false) List<String> status) {
+        Set<String> statuses = Set.copyOf(status == null || status.isEmpty() ? CustomerOrdersService.OPEN_STATUSES : status);
+        return orderEvents.subscribe(
+                event -> statuses.contains(event.order().status())
+                        || (event.previousStatus() != null && statuses.contains(event.previousStatus())),
+                List::of
+        );
+    }
+
+    @GetMapping("/metrics/basic-auth-cache")
+    public ResponseEntity<CacheStatsDTO> getBasicAuthCacheStats() {
+        // Hit/miss counters and current size of the Basic-auth credential cache
+        return ResponseEntity.ok(credentialCache.stats());
+    }
+
+    @GetMapping("/metrics/password-pool")
+    public ResponseEntity<PasswordPoolStatsDTO> getPasswordPoolStats() {
+        // Queue wait and BCrypt time of login/registration work, plus how many were turned away
+        return ResponseEntity.ok(passwordPool.stats());
+    }
+
+    @GetMapping("/metrics/order-ingestion")
+    public ResponseEntity<OrderIngestionStatsDTO> getOrderIngestionStats() {
+        // Batches committed, average/max orders per batch, fallbacks to single commits and rejected orders
+        return ResponseEntity.ok(orderIngestion.stats());
+    }
+
+    @GetMapping("/metrics/order-events")
+    public ResponseEntity<OrderEventStatsDTO> getOrderEventStats() {
+        // Open SSE streams, events published/delivered, and events dropped for slow subscribers
+        return ResponseEntity.ok(orderEvents.stats());
+    }
+
+    @GetMapping("/metrics/optimistic-locks")
+    public ResponseEntity<List<OptimisticLockStatsDTO>> getOptimisticLockStats() {
+        // Per operation: attempts, version conflicts, retries, and writes that gave up after the last retry
+        return ResponseEntity.ok(lockRetry.stats());
+    }
+
+    @GetMapping("/metrics/startup-seeding")
+    public ResponseEntity<List<StartupTaskDTO>> getStartupSeedingStats() {
+        // Status and duration of each startup seeding task (catalog, built-in accounts)
+        return ResponseEntity.ok(startupSeeding.stats());
+    }
+
+    // GET /api/admin/sales/summary -> all-time totals, or ?from=2025-01-01&to=2025-01-31 for a date range
+    // Includes orders placed before the summary table existed (backfilled by migration V6)
+    @GetMapping("/sales/summary")
+    public ResponseEntity<SalesAggregationDTO> getSalesAggregates(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            return ResponseEntity.ok(salesSummary.getAllTimeAggregates());
+        }
+        validateRange(from, to);
+        return ResponseEntity.ok(salesSummary.getAggregates(from, to));
+    }
+
+    // GET /api/admin/sales/daily?from=2025-01-01&to=2025-01-31 -> one row per day that had orders
+    @GetMapping("/sales/daily")
+    public ResponseEntity<List<SalesSummaryDTO>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        validateRange(from, to);
+        return ResponseEntity.ok(salesSummary.getDailySummaries(from, to));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Both 'from' and 'to' are required and 'from' must not be after 'to'");
+        }
+    }
+}
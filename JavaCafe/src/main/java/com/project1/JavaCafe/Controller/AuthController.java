@@ -6,8 +6,12 @@ import com.project1.JavaCafe.JwtUtil;
 import com.project1.JavaCafe.Model.AppUser;
 import com.project1.JavaCafe.Repository.AppUserRepository;
 import com.project1.JavaCafe.Service.AppUserService;
+import com.project1.JavaCafe.Service.PasswordHashingPool;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,6 +19,9 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -29,18 +36,21 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AppUserService appUserService;
+    private final PasswordHashingPool passwordPool;
 
     // Constructors
-    public AuthController(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil, AppUserService appUserService) {
+    public AuthController(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil, AppUserService appUserService, PasswordHashingPool passwordPool) {
         this.appUserRepository = appUserRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this. appUserService = appUserService;
+        this.passwordPool = passwordPool;
     }
 
     // Methods
+    // BCrypt work runs on the PasswordHashingPool; returning a future frees the Tomcat thread while it waits.
     @PostMapping("/login")
-    public AuthResponse login(@RequestBody AuthRequest request){
+    public CompletableFuture<AuthResponse> login(@RequestBody AuthRequest request){
 
         // 1. Check if the user exists
         Optional<AppUser> optionalUser = appUserRepository.findByEmail(request.email);
@@ -51,51 +61,67 @@ public class AuthController {
         AppUser user = optionalUser.get(); // Get the AppUser object
         Long userId = user.getUserId(); // <--- Get the ID after the lookup
 
-        // 2. Validate the password match
-        if(!passwordEncoder.matches(request.password(), user.getPassword())){
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid password");
+        // 2. Validate the password match (on the password pool)
+        return passwordPool.submit(() -> passwordEncoder.matches(request.password(), user.getPassword()))
+                .thenApply(matches -> {
+                    if(!matches){
+                        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid password");
+                    }
+
+                    // 3. Generate a token WITH THE USER'S ROLE
+                    // We now call the two-argument generateToken(email, userRole)
+                    String token = jwtUtil.generateToken(
+                            userId,
+                            user.getEmail(),
+                            user.getUserRole() // <-- Pass the role string here
+                    );
+
+                    // 4. Return the token
+                    return new AuthResponse(token);
+                });
+    }
+
+    // Only the hash runs on the password pool: the email check and the insert stay on this thread,
+    // so the pool's few threads are never held up by the database.
+    @PostMapping("/register")
+    public AuthResponse register(@RequestBody RegisterCustomerDTO request){
+        AppUserDTO user;
+        try {
+            // 1. Check for an existing email before spending a BCrypt hash on it
+            appUserService.checkEmailAvailable(request.email());
+
+            // 2. Hash the password on the password pool
+            String hashedPassword = passwordPool.submit(() -> appUserService.hashPassword(request.password())).join();
+
+            // 3. Create the user, with the role HARDCODED to "CUSTOMER" by the service
+            user = appUserService.saveNewCustomer(request, hashedPassword);
+        } catch (CompletionException | IllegalArgumentException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IllegalArgumentException) {
+                // Handle the specific exception thrown by AppUserService if the email exists
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, cause.getMessage());
+            }
+            // Handle other unexpected errors during the process
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Registration failed: " + cause.getMessage());
         }
 
-        // 3. Generate a token WITH THE USER'S ROLE
-        // We now call the two-argument generateToken(email, userRole)
+        // 4. Automatically log the user in immediately after successful registration
+        //    by generating and returning a token for the new user.
         String token = jwtUtil.generateToken(
-                userId,
-                user.getEmail(),
-                user.getUserRole() // <-- Pass the role string here
+                user.userId(),
+                user.email(), // as stored, i.e. normalized
+                "CUSTOMER" // We know the role is CUSTOMER, as it was hardcoded in the service
         );
 
-        // 4. Return the token
+        // 5. Return the token to the frontend
         return new AuthResponse(token);
     }
 
-    @PostMapping("/register")
-    public AuthResponse register(@RequestBody RegisterCustomerDTO request){
-        try {
-            // 1. Call the service layer to create the user, which:
-            //    - Checks for existing email.
-            //    - Hashes the password.
-            //    - HARDCODES the role to "CUSTOMER".
-            AppUserDTO user = appUserService.registerNewCustomer(request);
-            //appUserService.registerNewCustomer(request);
-            Long userId = user.userId();
-
-            // 2. Automatically log the user in immediately after successful registration
-            //    by generating and returning a token for the new user.
-            String token = jwtUtil.generateToken(
-                    userId,
-                    request.email(),
-                    "CUSTOMER" // We know the role is CUSTOMER, as it was hardcoded in the service
-            );
-
-            // 3. Return the token to the frontend
-            return new AuthResponse(token);
-
-        } catch (IllegalArgumentException e) {
-            // Handle the specific exception thrown by AppUserService if the email exists
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
-        } catch (Exception e) {
-            // Handle other unexpected errors during the process
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Registration failed: " + e.getMessage());
-        }
+    // The password pool's queue is full: fail fast instead of tying up more request threads
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handlePoolFull(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordPool.getRetryAfterSeconds()))
+                .body("Too many login requests, please retry shortly.");
     }
 }
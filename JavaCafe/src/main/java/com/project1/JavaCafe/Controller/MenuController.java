@@ -1,41 +1,90 @@
 package com.project1.JavaCafe.Controller;
-import com.project1.JavaCafe.DTO.MenuDescriptionDTO;
-import com.project1.JavaCafe.DTO.MenuProductsDTO;
-import com.project1.JavaCafe.DTO.ProductsDTO;
+import com.project1.JavaCafe.Service.MenuRepresentationCache;
+import com.project1.JavaCafe.Service.MenuRepresentationCache.CachedRepresentation;
 import com.project1.JavaCafe.Service.ProductsService;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/menu") // domain:port/api/expenses
 public class MenuController {
     // Fields
     private final ProductsService Pservice;
+    private final MenuRepresentationCache representationCache;
 
     // Constructor
-    public MenuController(ProductsService Pservice) {
+    public MenuController(ProductsService Pservice, MenuRepresentationCache representationCache) {
         this.Pservice = Pservice;
+        this.representationCache = representationCache;
     }
 
-    @GetMapping
-    public ResponseEntity<List<MenuProductsDTO>> getAllProducts() {
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        // Pre-serialized bytes of the in-memory snapshot, no database hit and no Jackson
+        CachedRepresentation menu = representationCache.get("menu", Pservice::getAllMenuProducts);
 
-        List<MenuProductsDTO> productsList = Pservice.getAllMenuProducts();
+        // Return status 200 OK (or 304 if the client's ETag still matches) along with the snapshot version
+        return representationCache.toResponse(menu, acceptEncoding);
+    }
+
+    // GET /api/menu/categories -> one entry per category with its product count, in-stock count and price range
+    @GetMapping(value = "/categories", produces = "application/json")
+    public ResponseEntity<byte[]> getCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        // Precomputed with the snapshot's category index, served like the menu itself (ETag, gzip)
+        CachedRepresentation categories = representationCache.get("categories", Pservice::getCategoryFacets);
+        return representationCache.toResponse(categories, acceptEncoding);
+    }
 
-        // Return status 200 OK along with the list of products
-        return new ResponseEntity<>(productsList, HttpStatus.OK);
+    // GET /api/menu/categories/COFFEE/descriptions -> {"1": "...", "2": "..."} for the whole category
+    @GetMapping(value = "/categories/{category}/descriptions", produces = "application/json")
+    public ResponseEntity<byte[]> getCategoryDescriptions(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        // Bounded by the number of categories (unknown ones come back empty and aren't cached)
+        CachedRepresentation descriptions = representationCache.get(
+                "descriptions:" + category,
+                () -> Pservice.getCategoryDescriptions(category)
+        );
+        return representationCache.toResponse(descriptions, acceptEncoding);
     }
 
-    @GetMapping("/description/{productId}")
-    public ResponseEntity<MenuDescriptionDTO> getProductDetails(@PathVariable Long productId) {
+    @GetMapping("/version")
+    public ResponseEntity<Map<String, Long>> getMenuVersion() {
+        // Lets clients cheaply check whether the menu changed since their last fetch
+        return ResponseEntity.ok(Map.of("version", Pservice.getMenuSnapshot().version()));
+    }
+
+    @GetMapping(value = "/description/{productId}", produces = "application/json")
+    public ResponseEntity<byte[]> getProductDetails(
+            @PathVariable Long productId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        // Unknown IDs throw 404 from the service and are never cached
+        CachedRepresentation description = representationCache.get(
+                "description:" + productId,
+                () -> Pservice.getProductDescription(productId)
+        );
 
-        MenuDescriptionDTO description = Pservice.getProductDescription(productId);
+        // Return status 200 OK (or 304) along with the serialized MenuDescriptionDTO
+        return representationCache.toResponse(description, acceptEncoding);
+    }
 
-        // Return status 200 OK along with the description DTO
-        return new ResponseEntity<>(description, HttpStatus.OK);
+    // GET /api/menu/descriptions?ids=1,2,3 -> {"1": "...", "2": "...", "3": "..."} in one round trip.
+    // Unknown IDs are left out; at most ProductsService.MAX_DESCRIPTION_IDS per request.
+    @GetMapping("/descriptions")
+    public ResponseEntity<Map<Long, String>> getProductDescriptions(@RequestParam List<Long> ids) {
+        // Looked up in the menu snapshot, no database hit. Not pre-serialized:
+        // every combination of IDs would be its own cache entry.
+        return ResponseEntity.ok(Pservice.getProductDescriptions(ids));
     }
 
 
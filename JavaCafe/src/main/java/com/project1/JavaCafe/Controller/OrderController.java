@@ -1,20 +1,31 @@
 package com.project1.JavaCafe.Controller;
 
 import com.project1.JavaCafe.DTO.*;
+import com.project1.JavaCafe.Model.AppUser;
+import com.project1.JavaCafe.UserPrincipal;
 import com.project1.JavaCafe.Repository.AppUserRepository;
 import com.project1.JavaCafe.Repository.CustomerOrdersRepository;
-import com.project1.JavaCafe.Service.AppUserService;
 import com.project1.JavaCafe.Service.CustomerOrdersService;
+import com.project1.JavaCafe.Service.IdempotencyService;
+import com.project1.JavaCafe.Service.OrderEventBroadcaster;
+import com.project1.JavaCafe.Service.MenuRepresentationCache;
+import com.project1.JavaCafe.Service.MenuRepresentationCache.CachedRepresentation;
 import com.project1.JavaCafe.Service.ProductsService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Null;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 
 @RestController
@@ -22,31 +33,43 @@ import java.util.List;
 public class OrderController {
 
     private final CustomerOrdersService orderService;
-    private final AppUserService appService;
     private final ProductsService productsService;
+    private final MenuRepresentationCache representationCache;
+    private final IdempotencyService idempotency;
+    private final OrderEventBroadcaster orderEvents;
 
-    public OrderController(CustomerOrdersService orderService, AppUserService appService, ProductsService productsService ) {
+    public OrderController(CustomerOrdersService orderService, ProductsService productsService,
+                           MenuRepresentationCache representationCache, IdempotencyService idempotency,
+                           OrderEventBroadcaster orderEvents) {
         this.orderService = orderService;
-        this.appService = appService;
         this.productsService = productsService;
+        this.representationCache = representationCache;
+        this.idempotency = idempotency;
+        this.orderEvents = orderEvents;
     }
 
-    @GetMapping
-    public ResponseEntity<List<ProductsDTO>> getProducts(
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<byte[]> getProducts(
             // IMPORTANT: Change from Long categoryId to String categoryName
-            @RequestParam(required = false) String categoryName
+            @RequestParam(required = false) String categoryName,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        List<ProductsDTO> products = productsService.findAllOrFilterByCategory(categoryName);
+        // Pre-serialized product listing, re-built only when the menu snapshot changes
+        CachedRepresentation products = representationCache.get(
+                "cart:" + (categoryName == null ? "*" : categoryName),
+                () -> productsService.findAllOrFilterByCategory(categoryName)
+        );
 
-        if (products.isEmpty()) {
+        if (products.empty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(products);
+        return representationCache.toResponse(products, acceptEncoding);
     }
 
     @PostMapping("/guest/submit") // Use a clear endpoint path for guests
     public ResponseEntity<CustomerOrdersDTO> submitPublicOrder(
             @RequestBody GuestCheckoutDTO guestOrderDetails, // 1. Use the correct DTO
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             HttpServletRequest request // Optional, but can be kept
     ) {
 
@@ -60,10 +83,20 @@ public class OrderController {
 
         try {
             // 2. Call the Order Service method, passing the complete GuestCheckoutDTO
-            CustomerOrdersDTO newOrder = orderService.createGuestOrder(guestOrderDetails);
+            //    A repeated Idempotency-Key returns the first order instead of placing another one
+            CustomerOrdersDTO newOrder = idempotency.submit(
+                    "guest:" + AppUser.normalizeEmail(guestOrderDetails.email()),
+                    idempotencyKey,
+                    () -> orderService.createGuestOrder(guestOrderDetails)
+            );
 
             return new ResponseEntity<>(newOrder, HttpStatus.CREATED);
 
+        } catch (ResponseStatusException e) {
+            // e.g. 409 when the email belongs to a registered account
+            return new ResponseEntity<>(e.getStatusCode());
+        } catch (RejectedExecutionException e) {
+            return orderQueueFull();
         } catch (RuntimeException e) {
             // Handle specific exceptions from the service layer (e.g., product not found)
             // Log the error (e.getMessage())
@@ -78,7 +111,8 @@ public class OrderController {
     @PostMapping("/new") //
     public ResponseEntity<CustomerOrdersDTO> createOrder(
             @RequestBody CustomerOrdersWOIDDTO orderDetailsDTO, //Email is inside here
-            HttpServletRequest request
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            UserPrincipal principal
     ) {
         // 1. Get the email from the DTO
 //        String userEmail = orderDetailsDTO.email();
@@ -89,44 +123,53 @@ public class OrderController {
 
         // The JwtInterceptor placed this identity here after validating the token.
         //String userEmail = (String) request.getAttribute("email");
-        Long userId = (Long) request.getAttribute("userId"); // Check for casting
+        Long userId = principal == null ? null : principal.userId();
         if (userId == null) {
             // This case should ideally be caught by the interceptor/security filter,
             // safety check if a token was invalid or missing the claim.
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
 
-        // 2. Call the AppUserService to look up the ID
-        //Long userId = appService.getUserIdAfterLogin(userEmail);
-
         // 3. Pass the userId and the rest of the DTO to the Order Service
-        CustomerOrdersDTO newOrder = orderService.create(orderDetailsDTO, userId);
+        //    (once per Idempotency-Key: a double-tapped submit gets the first order back)
+        CustomerOrdersDTO newOrder = idempotency.submit(
+                "user:" + userId,
+                idempotencyKey,
+                () -> orderService.create(orderDetailsDTO, userId)
+        );
 
         return new ResponseEntity<>(newOrder, HttpStatus.CREATED);
     }
 
+    // GET /api/cart/mine?after=123&limit=20 -> the caller's orders, newest first.
+    // Pass the last orderId of a page as 'after' to get the next one.
+    @GetMapping("/mine")
+    public ResponseEntity<List<CustomerOrdersSummaryDTO>> getMyOrders(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit,
+            UserPrincipal principal
+    ) {
+        if (principal == null || principal.userId() == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        return ResponseEntity.ok(orderService.getOrderHistory(principal.userId(), after, limit));
+    }
+
     //findOrderById
     @GetMapping("/{id}") //RESTful path: GET /api/orders/123
     public ResponseEntity<CustomerOrdersSummaryDTO> getById(
             @PathVariable Integer id, // Corrected type: Use Long for Order ID
-            HttpServletRequest request // Required to securely get the user's identity
+            UserPrincipal principal // Resolved from the token by the JwtInterceptor, no DB lookup
     ) {
-        // 1. Get the authenticated user's email from the request attribute.
-        // The JwtInterceptor puts this here after validating the token.
-        String userEmail = (String) request.getAttribute("email");
-
         // Safety check: Should not happen if JwtInterceptor works correctly
-        if (userEmail == null) {
+        if (principal == null || principal.userId() == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
 
-        // 2. Convert the secure email back to the internal user ID.
-        // This call is only necessary because you stored the email in the JWT, not the ID.
-        Long userId = appService.getUserIdAfterLogin(userEmail);
-
-        // 3. Call the secure service method
-        // This method ensures the order with ID 'id' belongs to 'userId'.
-        CustomerOrdersSummaryDTO order = orderService.getByIdAndUserId(id, userId);
+        // 1. Call the secure service method
+        // This method ensures the order with ID 'id' belongs to the caller.
+        CustomerOrdersSummaryDTO order = orderService.getByIdAndUserId(id, principal.userId());
 
         if (order == null) {
             // Return 404 NOT FOUND if:
@@ -141,18 +184,16 @@ public class OrderController {
     @GetMapping("/{id}/items") // Maps to: GET /api/orders/123/items
     public ResponseEntity<CustomerOrdersDTO> getDetailsWithItems(
             @PathVariable Integer id,
-            HttpServletRequest request
+            UserPrincipal principal
     ) {
         // 1. Get the authenticated user's ID (same security logic as above)
-        String userEmail = (String) request.getAttribute("email");
-        if (userEmail == null) {
+        if (principal == null || principal.userId() == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
-        Long userId = appService.getUserIdAfterLogin(userEmail);
 
         // 2. Call the service method designed for detailed retrieval
         // The service layer MUST ensure this call eagerly loads the OrderItems.
-        CustomerOrdersDTO details = orderService.getDetailsWithItems(id, userId);
+        CustomerOrdersDTO details = orderService.getDetailsWithItems(id, principal.userId());
 
         if (details == null) {
             // Returns 404 if order is not found OR if user is not the owner
@@ -163,5 +204,70 @@ public class OrderController {
         return new ResponseEntity<>(details, HttpStatus.OK);
     }
 
+    // GET /api/cart/123/stream -> the order's current state, then each status change as it happens (text/event-stream)
+    // Needs "Authorization: Bearer", which a browser EventSource can't send: read it with fetch() and a stream reader
+    // (or a fetch-based SSE client). Keep polling GET /{id} as the fallback when the stream can't be opened.
+    @GetMapping(path = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrder(
+            @PathVariable Integer id,
+            UserPrincipal principal
+    ) {
+        if (principal == null || principal.userId() == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        // Same ownership check as GET /{id}: other users' orders are simply not found
+        return orderStream(id, () -> orderService.getByIdAndUserId(id, principal.userId()));
+    }
+
+    // GET /api/cart/guest/123?email=jane@x.com&token=... -> a guest order's summary. Guests have no login,
+    // so the order is found by its number, the email used at checkout (any case) and the guestToken
+    // returned by POST /guest/submit. Orders of registered accounts are never returned here.
+    @GetMapping("/guest/{id}")
+    public ResponseEntity<CustomerOrdersSummaryDTO> getGuestOrder(
+            @PathVariable Integer id,
+            @RequestParam String email,
+            @RequestParam String token
+    ) {
+        CustomerOrdersSummaryDTO order = orderService.getGuestOrder(id, email, token);
+        if (order == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(order, HttpStatus.OK);
+    }
 
+    // GET /api/cart/guest/123/stream?email=jane@x.com&token=... -> like /{id}/stream, for a guest order
+    // (same check as above). No Authorization header needed, so a plain browser EventSource works.
+    @GetMapping(path = "/guest/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGuestOrder(
+            @PathVariable Integer id,
+            @RequestParam String email,
+            @RequestParam String token
+    ) {
+        return orderStream(id, () -> orderService.getGuestOrder(id, email, token));
+    }
+
+    // 404 unless the lookup finds the order; otherwise its current state, then its changes.
+    // The lookup runs once, as the stream's snapshot, so it is read after the subscription starts.
+    private ResponseEntity<SseEmitter> orderStream(Integer id, Supplier<CustomerOrdersSummaryDTO> lookup) {
+        SseEmitter stream = orderEvents.subscribe(
+                event -> id.equals(event.order().orderId()),
+                () -> {
+                    CustomerOrdersSummaryDTO order = lookup.get();
+                    if (order == null) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found");
+                    }
+                    return List.of(order);
+                }
+        );
+        return ResponseEntity.ok(stream);
+    }
+
+    // Group-commit queue is full (peak burst): ask the client to retry instead of piling up threads
+    @ExceptionHandler(RejectedExecutionException.class)
+    public <T> ResponseEntity<T> orderQueueFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
 }
@@ -0,0 +1,7 @@
+package com.project1.JavaCafe.DTO;
+
+public record CacheStatsDTO(
+        long hits,
+        long misses,
+        int size
+) {}
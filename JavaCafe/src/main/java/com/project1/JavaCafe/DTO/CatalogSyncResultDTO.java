@@ -0,0 +1,9 @@
+package com.project1.JavaCafe.DTO;
+
+public record CatalogSyncResultDTO(
+        int catalogSize,
+        int created,
+        int updated,
+        int unchanged,
+        long elapsedMillis
+) {}
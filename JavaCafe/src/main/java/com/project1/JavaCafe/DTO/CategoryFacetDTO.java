@@ -0,0 +1,11 @@
+package com.project1.JavaCafe.DTO;
+
+import java.math.BigDecimal;
+
+public record CategoryFacetDTO(
+        String category,
+        int productCount,
+        int inStockCount,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {}
@@ -30,5 +30,6 @@ public record CustomerOrdersDTO (
         BigDecimal totalCost,
         LocalDate orderDate,
         String status,
-        List<OrderItemsDTO> items
+        List<OrderItemsDTO> items,
+        String guestToken // guest orders only: needed to look the order up again (null otherwise)
 ) {}
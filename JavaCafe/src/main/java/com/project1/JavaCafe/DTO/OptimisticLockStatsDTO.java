@@ -0,0 +1,9 @@
+package com.project1.JavaCafe.DTO;
+
+public record OptimisticLockStatsDTO(
+        String operation,
+        long attempts,
+        long conflicts,
+        long retries,
+        long exhausted
+) {}
@@ -0,0 +1,8 @@
+package com.project1.JavaCafe.DTO;
+
+public record OrderEventStatsDTO(
+        int subscribers,
+        long published,
+        long delivered,
+        long dropped
+) {}
@@ -0,0 +1,13 @@
+package com.project1.JavaCafe.DTO;
+
+public record OrderIngestionStatsDTO(
+        boolean groupCommitEnabled,
+        long batches,
+        long orders,
+        double avgBatchSize,
+        int maxBatchSize,
+        long fallbacks,
+        long rejected,
+        long timedOut,
+        int queueDepth
+) {}
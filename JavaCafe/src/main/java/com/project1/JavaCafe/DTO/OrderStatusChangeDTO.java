@@ -0,0 +1,7 @@
+package com.project1.JavaCafe.DTO;
+
+// Moves an order from the status the screen last showed ('from') to the next one ('to')
+public record OrderStatusChangeDTO(
+        String from,
+        String to
+) {}
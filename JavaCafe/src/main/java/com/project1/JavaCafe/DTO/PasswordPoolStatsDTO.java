@@ -0,0 +1,11 @@
+package com.project1.JavaCafe.DTO;
+
+public record PasswordPoolStatsDTO(
+        long completed,
+        long rejected,
+        int queueDepth,
+        double avgQueueWaitMillis,
+        double maxQueueWaitMillis,
+        double avgHashMillis,
+        double maxHashMillis
+) {}
@@ -8,7 +8,8 @@ public record ProductsDTO (
         String name,
         BigDecimal basePrice,
         String description,
-        String availability
+        String availability,
+        Long version // send back the version you read; an update against an older one gets a 409
 ) {}
 
     /*
@@ -0,0 +1,8 @@
+package com.project1.JavaCafe.DTO;
+
+public record StartupTaskDTO(
+        String name,
+        String status,
+        long elapsedMillis,
+        String error
+) {}
@@ -7,6 +7,7 @@ import com.project1.JavaCafe.Repository.CustomerOrdersRepository;
 import com.project1.JavaCafe.Repository.ProductsRepository;
 import com.project1.JavaCafe.Service.CustomerOrdersService;
 import com.project1.JavaCafe.Service.ProductsService;
+import com.project1.JavaCafe.Service.StartupSeeding;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -32,45 +33,33 @@ public class JavaCafeApplication {
     }
 
 
-        // Bean is a single method that is run after the application is started
+        // Bean is a single method that is run after the application is started.
+        // The seeding tasks don't depend on each other, so they run concurrently in the background;
+        // the node reports ready (/actuator/health/readiness) once all of them are done.
         @Bean
-        CommandLineRunner seedData(ProductsService productsService, AppUserRepository appUserRepository, PasswordEncoder passwordEncoder) {
-            return args -> {
-                // Spring safely calls the service method here after everything is ready
-                productsService.initializeTable();
+        CommandLineRunner seedData(StartupSeeding startupSeeding, ProductsService productsService,
+                                   AppUserRepository appUserRepository, PasswordEncoder passwordEncoder) {
+            return args -> startupSeeding.start(List.of(
+                    new StartupSeeding.Task("catalog", productsService::initializeTable),
 
-                // ADD ADMIN USER LOGIC
-                if (appUserRepository.findByEmail("admin.user@cafe.com").isEmpty()) {
+                    // ADD ADMIN USER LOGIC
+                    new StartupSeeding.Task("admin-user", () -> seedUser(appUserRepository, passwordEncoder,
+                            "admin.user@cafe.com", "adminpassword1", "ADMIN", "Cafe", "Admin")),
 
-                    String adminHashedPassword = passwordEncoder.encode("adminpassword1");
-
-                    AppUser adminUser = new AppUser(
-                            "admin.user@cafe.com",
-                            adminHashedPassword,
-                            "ADMIN", // Set role to ADMIN
-                            "Cafe",
-                            "Admin"
-                    );
-                    appUserRepository.save(adminUser);
-                    System.out.println("--- Created Admin Profile ---");
-                }
-
-                // Check if a test user exists to prevent duplicates
-                if (appUserRepository.findByEmail("test.user@cafe.com").isEmpty()) {
-
-                    String hashedPassword = passwordEncoder.encode("password123");
+                    new StartupSeeding.Task("test-user", () -> seedUser(appUserRepository, passwordEncoder,
+                            "test.user@cafe.com", "password123", "CUSTOMER", "Test", "User"))
+            ));
+        }
 
-                    AppUser testCustomer = new AppUser(
-                            "test.user@cafe.com",
-                            hashedPassword,
-                            "CUSTOMER",
-                            "Test",
-                            "User"
-                    );
-                    appUserRepository.save(testCustomer);
-                    System.out.println("--- Created Test Customer Profile ---");
-                }
+        // Creates a built-in account unless it already exists (checked first, to prevent duplicates)
+        private static void seedUser(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder,
+                                     String email, String password, String role, String firstName, String lastName) {
+            if (appUserRepository.findByEmail(email).isPresent()) {
+                return;
+            }
 
-            }; 
+            String hashedPassword = passwordEncoder.encode(password);
+            appUserRepository.save(new AppUser(email, hashedPassword, role, firstName, lastName));
+            System.out.println("--- Created " + role + " profile " + email + " ---");
         }
 }
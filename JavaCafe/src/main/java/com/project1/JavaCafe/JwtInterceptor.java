@@ -5,6 +5,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.Optional;
+
 @Component
 public class JwtInterceptor implements HandlerInterceptor {
     // Fields
@@ -19,6 +21,11 @@ public class JwtInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
 
+        // 0. Already authenticated by the BasicAuthInterceptor (admin scripts)
+        if (request.getAttribute(UserPrincipalArgumentResolver.PRINCIPAL_ATTRIBUTE) != null) {
+            return true;
+        }
+
         // 1. Authentication Check (Token Presence)
         String authHeader = request.getHeader("Authorization");
 
@@ -31,7 +38,9 @@ public class JwtInterceptor implements HandlerInterceptor {
         String token = authHeader.substring(7);
 
         // 2. Authentication Check (Token Validity)
-        if (!jwtUtil.validateToken(token)){
+        // One verify-and-extract call; repeat tokens are served from JwtUtil's cache
+        Optional<UserPrincipal> principal = jwtUtil.verify(token);
+        if (principal.isEmpty()){
             // Token is invalid/expired
             // TEMPORARY LOGGING:
             System.out.println("--- TOKEN VALIDATION FAILED FOR: " + token);
@@ -42,10 +51,9 @@ public class JwtInterceptor implements HandlerInterceptor {
 
         // --- AUTHORIZATION AND CONTEXT SETTING ---
 
-        // Extract required data from the now-validated token
-        String userEmail = jwtUtil.getEmailFromToken(token);
-        Long userId = jwtUtil.getUserIdFromToken(token);
-        String userRole = jwtUtil.getRoleFromToken(token);
+        // Data extracted from the now-validated token
+        Long userId = principal.get().userId();
+        String userRole = principal.get().userRole();
         String requestUri = request.getRequestURI();
 
         // 3. Manual Authorization Logic (Centralized Role Check)
@@ -76,6 +84,8 @@ public class JwtInterceptor implements HandlerInterceptor {
         request.setAttribute("userId", userId);
         //request.setAttribute("email", userEmail);
         request.setAttribute("userRole", userRole);
+        // Full identity for controllers that take a UserPrincipal parameter
+        request.setAttribute(UserPrincipalArgumentResolver.PRINCIPAL_ATTRIBUTE, principal.get());
 
         return true; // Request is authenticated and authorized, proceed to controller
     }
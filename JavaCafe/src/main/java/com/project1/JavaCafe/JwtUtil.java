@@ -1,5 +1,7 @@
 package com.project1.JavaCafe;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,19 +9,43 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap; 
+import java.util.LinkedHashMap;
 import java.util.Map;     
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
     // Fields
     private final SecretKey key;
+    private final JwtParser parser;
     private static final long expiration = 3600; // seconds/hour
 
+    // How often expired tokens are swept out of the cache (they are also dropped when looked up)
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+
+    // Already-verified tokens, keyed by a SHA-256 digest of the token (never the raw token).
+    // Insertion-ordered: when full, the oldest entry goes, in O(1)
+    private final LinkedHashMap<String, UserPrincipal> verifiedTokens;
+    private long nextSweepMillis; // guarded by verifiedTokens
+
     // Constructor
-    public JwtUtil( @Value("${jwt.secret}") String secret){
+    public JwtUtil( @Value("${jwt.secret}") String secret,
+                    @Value("${jwt.cache.max-entries:10000}") int maxCachedTokens){
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // The parser is immutable and thread-safe, so build it once
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserPrincipal> eldest) {
+                return size() > maxCachedTokens;
+            }
+        };
     }
 
     // Methods
@@ -53,7 +79,7 @@ public class JwtUtil {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(token); // throws exception if invalid
+            parser.parseSignedClaims(token); // throws exception if invalid
             return true;
         } catch (Exception e) {
             System.err.println("JWT Validation Failed. Type: " + e.getClass().getSimpleName() + ". Message: " + e.getMessage());
@@ -61,18 +87,86 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Verifies the token and extracts the caller's identity in one step.
+     * Tokens seen before are answered from a bounded cache until they expire,
+     * so repeat requests with the same bearer token skip signature checks and JSON parsing.
+     * @param token The raw JWT string.
+     * @return The caller's identity, or empty if the token is invalid or expired.
+     */
+    public Optional<UserPrincipal> verify(String token) {
+        String digest = digest(token);
+        Instant now = Instant.now();
+
+        UserPrincipal cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(digest);
+            if (cached != null && cached.isExpired(now)) {
+                verifiedTokens.remove(digest);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<UserPrincipal> principal = parsePrincipal(token);
+        principal.ifPresent(p -> cache(digest, p, now));
+        return principal;
+    }
+
+    /**
+     * Single signature check and claims read, without touching the cache.
+     */
+    public Optional<UserPrincipal> parsePrincipal(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiresAt = claims.getExpiration();
+
+            return Optional.of(new UserPrincipal(
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    expiresAt == null ? null : expiresAt.toInstant()
+            ));
+        } catch (Exception e) {
+            System.err.println("JWT Validation Failed. Type: " + e.getClass().getSimpleName() + ". Message: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void cache(String digest, UserPrincipal principal, Instant now) {
+        synchronized (verifiedTokens) {
+            // A full scan at most once a minute, not on every miss
+            if (now.toEpochMilli() >= nextSweepMillis) {
+                verifiedTokens.values().removeIf(p -> p.isExpired(now));
+                nextSweepMillis = now.toEpochMilli() + SWEEP_INTERVAL_MILLIS;
+            }
+            verifiedTokens.put(digest, principal);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public String getEmailFromToken(String token){
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+        return parser.parseSignedClaims(token).getPayload().getSubject();
     }
 
     /**
      * Helper method to retrieve the role from the token's claims.
      */
     public String getRoleFromToken(String token){
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().get("role", String.class);
+        return parser.parseSignedClaims(token).getPayload().get("role", String.class);
     }
 
     public Long getUserIdFromToken(String token){
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().get("userId", Long.class);
+        return parser.parseSignedClaims(token).getPayload().get("userId", Long.class);
     }
 }
@@ -1,9 +1,12 @@
 package com.project1.JavaCafe.Model;
 
+import com.project1.JavaCafe.AppUserChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Locale;
+
 @Entity
 @Table(
         name = "AppUsers",
@@ -11,14 +14,16 @@ import lombok.NoArgsConstructor;
                 @UniqueConstraint(columnNames = {"email"})
         }
 )
+@EntityListeners(AppUserChangeListener.class) // Drops cached Basic-auth credentials on change
 @Data
 @NoArgsConstructor
 public class AppUser {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "app_users_seq")
     private Long userId;
 
+    // Stored trimmed and lower-cased (see normalizeEmail), so "Jane@X.com" and "jane@x.com" are one account
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -36,10 +41,21 @@ public class AppUser {
 
     // Constructor for creating new users
     public AppUser(String email, String password, String userRole, String firstName, String lastName) {
-        this.email = email;
+        this.email = normalizeEmail(email);
         this.password = password;
         this.userRole = userRole;
         this.firstName = firstName;
         this.lastName = lastName;
     }
+
+    // The one spelling of an email used for every write and lookup
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        this.email = normalizeEmail(email);
+    }
 }
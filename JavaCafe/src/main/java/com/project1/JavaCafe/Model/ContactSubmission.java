@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class ContactSubmission {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "contact_submissions_seq")
     private Long submissionid;
 
     @Column(nullable = false)
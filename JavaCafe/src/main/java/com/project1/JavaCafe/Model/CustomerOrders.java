@@ -11,14 +11,28 @@ import lombok.NoArgsConstructor;
 
 
 @Entity
-@Table(name = "CustomerOrders")
+// Detail view: the order and its items in one query (items carry their own product snapshot)
+@NamedEntityGraph(
+        name = CustomerOrders.WITH_ITEMS,
+        attributeNodes = @NamedAttributeNode("orderItems")
+)
+@Table(
+        name = "CustomerOrders",
+        indexes = {
+                // Order board: WHERE status IN (...) AND orderId > ? ORDER BY orderId
+                @Index(name = "idx_customer_orders_status_order_id", columnList = "status, orderId"),
+                // Order history: WHERE userId = ? AND (orderDate, orderId) < (?, ?) ORDER BY orderDate DESC, orderId DESC
+                @Index(name = "idx_customer_orders_user_date_order_id", columnList = "userId, orderDate, orderId")
+        }
+)
 @Data
 @NoArgsConstructor
 
 public class CustomerOrders {
+    public static final String WITH_ITEMS = "CustomerOrders.withItems";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "customer_orders_seq")
     private Integer orderId;
 
     // Many orders can belong to one user
@@ -35,6 +49,14 @@ public class CustomerOrders {
     @Column(name = "status", nullable = false)
     private String status;
 
+    // Random secret handed to a guest at checkout; with the email it lets them look the order up (null for accounts)
+    @Column(name = "guestToken", length = 64)
+    private String guestToken;
+
+    // Optimistic locking, same as Products.version
+    @Version
+    private Long version;
+
     @OneToMany(
             mappedBy = "order",
             cascade = CascadeType.ALL,
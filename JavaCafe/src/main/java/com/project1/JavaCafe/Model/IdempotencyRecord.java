@@ -0,0 +1,46 @@
+package com.project1.JavaCafe.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Remembers which order an Idempotency-Key produced, so a retried submission can be answered
+ * with the original order after a restart or on another instance.
+ */
+@Entity
+@Table(
+        name = "IdempotencyKeys",
+        indexes = {
+                // Expired key purge: WHERE createdAt < ?
+                @Index(name = "idx_idempotency_keys_created_at", columnList = "createdAt")
+        }
+)
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    // "<scope>:<client key>", e.g. "user:5:3f0c..." or "guest:jane@x.com:3f0c..."
+    @Id
+    @Column(name = "idempotencyKey", length = 400)
+    private String idempotencyKey;
+
+    // Empty only between claiming the key and creating the order, inside one transaction
+    @Column(name = "orderId")
+    private Integer orderId;
+
+    @Column(name = "userId")
+    private Long userId;
+
+    @Column(name = "createdAt", nullable = false)
+    private Instant createdAt;
+
+    public IdempotencyRecord(String idempotencyKey, Integer orderId, Long userId, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.createdAt = createdAt;
+    }
+}
@@ -5,17 +5,25 @@ import java.math.BigDecimal;
 import java.util.List;
 
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 
 @Entity
-@Table(name = "OrderItems")
+@Table(
+        name = "OrderItems",
+        indexes = {
+                // Order detail and item counts: WHERE orderId = ?
+                @Index(name = "idx_order_items_order_id", columnList = "orderId")
+        }
+)
 @Data
 @NoArgsConstructor
 public class OrderItems {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "order_items_seq")
     private Integer itemId;
 
     // Many items can belong to one order
@@ -34,6 +42,15 @@ public class OrderItems {
     @Column(name = "unitPrice", nullable = false)
     private BigDecimal unitPrice;
 
+    // Snapshot of the product as it was sold: receipts and history read these instead of joining Products,
+    // and stay correct after the product is renamed or re-categorized
+    @Setter(AccessLevel.NONE)
+    @Column(name = "productName", nullable = false, updatable = false)
+    private String productName;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "productCategory", nullable = false, updatable = false)
+    private String productCategory;
 
 
     public OrderItems(CustomerOrders order, Products product, int quantity, BigDecimal unitPrice) {
@@ -41,5 +58,7 @@ public class OrderItems {
         this.product = product;
         this.quantity = quantity;
         this.unitPrice = unitPrice;
+        this.productName = product.getName();
+        this.productCategory = product.getCategory();
     }
 }
\ No newline at end of file
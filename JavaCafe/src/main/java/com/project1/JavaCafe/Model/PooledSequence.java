@@ -0,0 +1,21 @@
+package com.project1.JavaCafe.Model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an ID as coming from a pooled database sequence.
+ * Unlike IDENTITY, this lets Hibernate batch the INSERTs.
+ * Every sequence uses the same allocation size (PooledSequenceGenerator.ALLOCATION_SIZE).
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+    // Name of the database sequence backing this ID
+    String name();
+}
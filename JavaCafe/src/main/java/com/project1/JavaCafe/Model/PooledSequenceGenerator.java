@@ -0,0 +1,37 @@
+package com.project1.JavaCafe.Model;
+
+import org.hibernate.MappingException;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Sequence generator behind {@link PooledSequence}.
+ * Uses Hibernate's pooled optimizer, so one sequence call hands out a whole block of IDs.
+ * The block size is fixed: it has to equal the sequences' "increment by" in the migrations,
+ * and Hibernate refuses to start if the two disagree (increment_size_mismatch_strategy=exception).
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    // Same as "increment by" of every *_seq in db/migration
+    public static final int ALLOCATION_SIZE = 50;
+
+    // Fields
+    private final String sequenceName;
+
+    // Constructor (called by Hibernate for every field annotated with @PooledSequence)
+    public PooledSequenceGenerator(PooledSequence config, Member idMember, GeneratorCreationContext creationContext) {
+        this.sequenceName = config.name();
+    }
+
+    // Methods
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        parameters.put(INCREMENT_PARAM, String.valueOf(ALLOCATION_SIZE));
+        parameters.put(OPT_PARAM, "pooled");
+
+        super.configure(creationContext, parameters);
+    }
+}
@@ -10,12 +10,15 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "Products", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"name", "description"})
+}, indexes = {
+        // Menu filter: findByCategory
+        @Index(name = "idx_products_category", columnList = "category")
 })
 @Data
 @NoArgsConstructor
 public class Products {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "products_seq")
     private Long productId;
 
     @Column(nullable = false)
@@ -33,6 +36,10 @@ public class Products {
     @Column(nullable = false)
     private String availability;
 
+    // Bumped on every write; a save based on an older read fails instead of overwriting
+    @Version
+    private Long version;
+
     // Constructor for creating new products
     public Products(String category, String name, BigDecimal basePrice, String description, String availability) {
         this.category = category;
@@ -0,0 +1,42 @@
+package com.project1.JavaCafe.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One row per sales day, kept up to date in the same transaction as every order write.
+ * Reports read these rows instead of scanning every order item.
+ */
+@Entity
+@Table(
+        name = "SalesSummaries",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"salesDate"})
+        }
+)
+@Data
+@NoArgsConstructor
+public class SalesSummary {
+
+    @Id
+    @PooledSequence(name = "sales_summaries_seq")
+    private Long summaryId;
+
+    @Column(name = "salesDate", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "totalOrders", nullable = false)
+    private int totalOrders;
+
+    @Column(name = "totalItemsSold", nullable = false)
+    private int totalItemsSold;
+
+    public SalesSummary(LocalDate salesDate, int totalOrders, int totalItemsSold) {
+        this.salesDate = salesDate;
+        this.totalOrders = totalOrders;
+        this.totalItemsSold = totalItemsSold;
+    }
+}
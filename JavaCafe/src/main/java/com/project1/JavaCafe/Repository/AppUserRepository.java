@@ -2,11 +2,27 @@ package com.project1.JavaCafe.Repository;
 
 import com.project1.JavaCafe.Model.AppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
-    Optional<AppUser> findByEmail(String email);
+    // Emails are stored normalized, so the lookup normalizes too and stays an indexed equality match
+    default Optional<AppUser> findByEmail(String email) {
+        return findByNormalizedEmail(AppUser.normalizeEmail(email));
+    }
 
+    @Query("SELECT u FROM AppUser u WHERE u.email = :email")
+    Optional<AppUser> findByNormalizedEmail(String email);
+
+    // Guest checkout: creates the GUEST row unless the email already exists, without failing the transaction.
+    // The email must already be normalized (AppUser.normalizeEmail).
+    // Draws its ID from the same pooled sequence Hibernate uses, so the two never overlap.
+    @Modifying
+    @Query(value = "INSERT INTO app_users (user_id, email, password, user_role, first_name, last_name) " +
+            "VALUES (nextval('app_users_seq'), :email, NULL, 'GUEST', :firstName, :lastName) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertGuestIfAbsent(String email, String firstName, String lastName);
 
 }
@@ -1,27 +1,66 @@
 package com.project1.JavaCafe.Repository;
 
-import com.project1.JavaCafe.DTO.SalesAggregationDTO;
+import com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO;
 import com.project1.JavaCafe.DTO.SalesSummaryDTO;
 import com.project1.JavaCafe.Model.CustomerOrders;
 import com.project1.JavaCafe.Model.Products;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface CustomerOrdersRepository extends JpaRepository<CustomerOrders, Integer> {
     //get user id to create new order
-    // This query loads the order, joins the user for the check,
-    // AND LEFT JOIN FETCHES the orderItems to populate the list efficiently.
-    //@Query("SELECT o FROM CustomerOrders o JOIN FETCH o.user u LEFT JOIN FETCH o.orderItems oi WHERE o.orderId = :orderId AND u.userId = :userId")
     Optional<CustomerOrders> findByOrderIdAndUser_UserId(Integer orderId, Long userId);
-    List<CustomerOrders> findByStatusIn(List<String> statuses);
-    // The JPQL uses the constructor mapping (new ...) to populate the DTO.
-    @Query("SELECT new com.project1.JavaCafe.DTO.SalesAggregationDTO(" +
-            "  CAST(COUNT(DISTINCT o.orderId) AS integer), " + // Cast the COUNT result to INTEGER
-            "  CAST(SUM(oi.quantity) AS integer) " +  // Sum the quantity from OrderItems
-            ") FROM CustomerOrders o JOIN o.orderItems oi") // Join the OrderItems collection
-    SalesAggregationDTO calculateAllTimeAggregates();
+    // Same ownership check, but LEFT JOIN FETCHes the orderItems
+    // so the detail DTO can be built from a single round trip
+    @EntityGraph(CustomerOrders.WITH_ITEMS)
+    Optional<CustomerOrders> findWithItemsByOrderIdAndUser_UserId(Integer orderId, Long userId);
+    // Order board page: selects the summary columns straight into the DTO (no entities, no lazy user loads)
+    // and seeks past the last orderId seen, so every page costs the same no matter how deep it is.
+    // Served by the (status, orderId) index on CustomerOrders.
+    @Query("SELECT new com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO(" +
+            "o.orderId, o.user.userId, o.totalCost, o.orderDate, o.status) " +
+            "FROM CustomerOrders o WHERE o.status IN :statuses AND o.orderId > :afterOrderId " +
+            "ORDER BY o.orderId")
+    List<CustomerOrdersSummaryDTO> findSummariesByStatusIn(List<String> statuses, Integer afterOrderId, Limit limit);
+
+    // Customer order history, newest first. The next page seeks past the (orderDate, orderId)
+    // of the last row seen, so it is an index range read on (userId, orderDate, orderId)
+    // no matter how many orders the customer has.
+    @Query("SELECT new com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO(" +
+            "o.orderId, o.user.userId, o.totalCost, o.orderDate, o.status) " +
+            "FROM CustomerOrders o WHERE o.user.userId = :userId " +
+            "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<CustomerOrdersSummaryDTO> findHistory(Long userId, Limit limit);
+
+    @Query("SELECT new com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO(" +
+            "o.orderId, o.user.userId, o.totalCost, o.orderDate, o.status) " +
+            "FROM CustomerOrders o WHERE o.user.userId = :userId " +
+            "AND (o.orderDate, o.orderId) < (:afterOrderDate, :afterOrderId) " +
+            "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<CustomerOrdersSummaryDTO> findHistoryAfter(Long userId, LocalDate afterOrderDate, Integer afterOrderId, Limit limit);
+
+    // Where a history page left off; also checks the cursor order is the caller's
+    @Query("SELECT o.orderDate FROM CustomerOrders o WHERE o.orderId = :orderId AND o.user.userId = :userId")
+    Optional<LocalDate> findOrderDate(Integer orderId, Long userId);
+
+    @Query("SELECT new com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO(" +
+            "o.orderId, o.user.userId, o.totalCost, o.orderDate, o.status) " +
+            "FROM CustomerOrders o WHERE o.orderId = :orderId")
+    Optional<CustomerOrdersSummaryDTO> findSummaryById(Integer orderId);
+
+    // Compare-and-set on the status column: one statement, no entity load.
+    // Returns 0 if the order is gone or is no longer in the expected status.
+    @Modifying
+    // Also bumps the version, so an edit based on the old status can't overwrite it later.
+    @Query("UPDATE CustomerOrders o SET o.status = :newStatus, o.version = o.version + 1 " +
+            "WHERE o.orderId = :orderId AND o.status = :expectedStatus")
+    int updateStatus(Integer orderId, String expectedStatus, String newStatus);
 
 }
@@ -0,0 +1,33 @@
+package com.project1.JavaCafe.Repository;
+
+import com.project1.JavaCafe.Model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(Instant cutoff);
+
+    // Frees one key whose TTL has run out, so it can be claimed again
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.createdAt < :cutoff")
+    int deleteExpired(String key, Instant cutoff);
+
+    // Claims the key for this transaction; returns 0 if another request already holds it.
+    // A duplicate is skipped instead of raising an error, so the caller's transaction stays usable.
+    // (If the holder hasn't committed yet, Postgres waits for it before answering.)
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, created_at) " +
+            "VALUES (:key, :createdAt) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int claim(String key, Instant createdAt);
+
+    // Records which order the claimed key produced
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.orderId = :orderId, r.userId = :userId WHERE r.idempotencyKey = :key")
+    int attachOrder(String key, Integer orderId, Long userId);
+}
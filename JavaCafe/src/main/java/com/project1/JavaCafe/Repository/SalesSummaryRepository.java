@@ -0,0 +1,42 @@
+package com.project1.JavaCafe.Repository;
+
+import com.project1.JavaCafe.DTO.SalesAggregationDTO;
+import com.project1.JavaCafe.Model.SalesSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesSummaryRepository extends JpaRepository<SalesSummary, Long> {
+    List<SalesSummary> findBySalesDateBetweenOrderBySalesDate(LocalDate from, LocalDate to);
+
+    // Atomic in-place increment, so concurrent orders on the same day never lose an update.
+    // Returns 0 when the day has no row yet.
+    @Modifying
+    @Query("UPDATE SalesSummary s SET s.totalOrders = s.totalOrders + :orders, " +
+            "s.totalItemsSold = s.totalItemsSold + :items WHERE s.salesDate = :salesDate")
+    int addToDay(LocalDate salesDate, int orders, int items);
+
+    // Creates the day's empty row unless another order already did, without failing the transaction.
+    // Draws its ID from the same pooled sequence Hibernate uses, so the two never overlap.
+    @Modifying
+    @Query(value = "INSERT INTO sales_summaries (summary_id, sales_date, total_orders, total_items_sold) " +
+            "VALUES (nextval('sales_summaries_seq'), :salesDate, 0, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertDayIfAbsent(LocalDate salesDate);
+
+    // Sums one row per day instead of joining every order to every order item
+    @Query("SELECT new com.project1.JavaCafe.DTO.SalesAggregationDTO(" +
+            "  CAST(COALESCE(SUM(s.totalOrders), 0) AS integer), " +
+            "  CAST(COALESCE(SUM(s.totalItemsSold), 0) AS integer) " +
+            ") FROM SalesSummary s")
+    SalesAggregationDTO calculateAllTimeAggregates();
+
+    @Query("SELECT new com.project1.JavaCafe.DTO.SalesAggregationDTO(" +
+            "  CAST(COALESCE(SUM(s.totalOrders), 0) AS integer), " +
+            "  CAST(COALESCE(SUM(s.totalItemsSold), 0) AS integer) " +
+            ") FROM SalesSummary s WHERE s.salesDate BETWEEN :from AND :to")
+    SalesAggregationDTO calculateAggregatesBetween(LocalDate from, LocalDate to);
+}
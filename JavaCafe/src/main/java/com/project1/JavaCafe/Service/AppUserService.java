@@ -5,6 +5,7 @@ import com.project1.JavaCafe.Model.AppUser;
 import com.project1.JavaCafe.Model.Products;
 import com.project1.JavaCafe.Repository.AppUserRepository;
 import com.project1.JavaCafe.Repository.ProductsRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -41,14 +42,28 @@ public class AppUserService {
 
     public AppUserDTO registerNewCustomer(RegisterCustomerDTO dto) {
         // 1. Business Logic: Check if email already exists
-        if (repository.findByEmail(dto.email()).isPresent()) {
+        checkEmailAvailable(dto.email());
+
+        // 2. Security: HASH the raw password before creating the entity
+        String hashedPassword = hashPassword(dto.password());
+
+        // 3. Create and save the entity
+        return saveNewCustomer(dto, hashedPassword);
+    }
+
+    // The steps of registerNewCustomer, for callers that run the BCrypt step elsewhere (AuthController)
+    public void checkEmailAvailable(String email) {
+        if (repository.findByEmail(email).isPresent()) {
             throw new IllegalArgumentException("Email already in use.");
         }
+    }
 
-        // 2. Security: HASH the raw password before creating the entity
-        String hashedPassword = passwordEncoder.encode(dto.password());
+    public String hashPassword(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
 
-        // 3. Create the entity, HARDCODING the role for security
+    public AppUserDTO saveNewCustomer(RegisterCustomerDTO dto, String hashedPassword) {
+        // HARDCODING the role for security
         AppUser user = new AppUser(
                 dto.email(),
                 hashedPassword,
@@ -57,8 +72,12 @@ public class AppUserService {
                 dto.lastName()
         );
 
-        // 4. Save and return DTO
-        return AppUserToDto(repository.save(user));
+        try {
+            return AppUserToDto(repository.save(user));
+        } catch (DataIntegrityViolationException e) {
+            // Same email registered by a concurrent request since checkEmailAvailable
+            throw new IllegalArgumentException("Email already in use.");
+        }
     }
 
 
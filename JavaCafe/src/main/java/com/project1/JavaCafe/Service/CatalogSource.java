@@ -0,0 +1,80 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.ProductsWOIDDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the menu catalog (catalog.seed-location, a JSON array of products) that
+ * ProductsService seeds the Products table from, and the files CatalogWatcher picks up at runtime.
+ * Entries are keyed on (category, name); a file with a duplicate key or a missing field is rejected as a whole.
+ */
+@Service
+public class CatalogSource {
+    public static final String DEFAULT_AVAILABILITY = "IN_STOCK";
+
+    // Fields
+    private final ObjectMapper objectMapper;
+    private final Resource location;
+
+    // Constructor
+    public CatalogSource(ObjectMapper objectMapper,
+                         @Value("${catalog.seed-location:classpath:catalog/products.json}") Resource location) {
+        this.objectMapper = objectMapper;
+        this.location = location;
+    }
+
+    // Methods
+    public Resource getLocation() {
+        return location;
+    }
+
+    public List<ProductsWOIDDTO> load() {
+        return load(location);
+    }
+
+    /**
+     * Reads one catalog file. Entries are streamed and checked one at a time,
+     * so a bad entry fails the read without building the whole document in memory first.
+     */
+    public List<ProductsWOIDDTO> load(Resource resource) {
+        List<ProductsWOIDDTO> catalog = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+
+        try (InputStream in = resource.getInputStream();
+             MappingIterator<ProductsWOIDDTO> entries = objectMapper.readerFor(ProductsWOIDDTO.class).readValues(in)) {
+            while (entries.hasNextValue()) {
+                ProductsWOIDDTO entry = entries.nextValue();
+                if (isBlank(entry.category()) || isBlank(entry.name()) || entry.basePrice() == null || isBlank(entry.description())) {
+                    throw new IllegalStateException("Catalog entry needs a category, name, basePrice and description: " + entry);
+                }
+                if (!keys.add(entry.category() + '\n' + entry.name())) {
+                    throw new IllegalStateException("Duplicate catalog entry: " + entry.category() + " / " + entry.name());
+                }
+
+                // Availability is optional in the file
+                catalog.add(isBlank(entry.availability())
+                        ? new ProductsWOIDDTO(entry.category(), entry.name(), entry.basePrice(), entry.description(), DEFAULT_AVAILABILITY)
+                        : entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the catalog from " + resource, e);
+        }
+        return catalog;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
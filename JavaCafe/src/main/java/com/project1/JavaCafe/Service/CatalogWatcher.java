@@ -0,0 +1,150 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CatalogSyncResultDTO;
+import com.project1.JavaCafe.DTO.ProductsWOIDDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Optional hot reload of the menu: watches catalog.watch.directory for *.json catalog files
+ * (same format as the seed catalog) and syncs each one that is created or changed into the Products table.
+ * Off when the directory is not set.
+ * <p>
+ * Editors usually write a file in several steps, so changes are collected until the directory
+ * has been quiet for debounce-millis. A file that fails to parse is logged and skipped;
+ * the menu keeps serving the last good snapshot.
+ */
+@Service
+public class CatalogWatcher {
+    private static final String CATALOG_SUFFIX = ".json";
+
+    // Fields
+    private final CatalogSource catalogSource;
+    private final ProductsService productsService;
+    private final String directory;
+    private final long debounceMillis;
+    private volatile WatchService watchService;
+
+    // Constructor
+    public CatalogWatcher(CatalogSource catalogSource,
+                          ProductsService productsService,
+                          @Value("${catalog.watch.directory:}") String directory,
+                          @Value("${catalog.watch.debounce-millis:500}") long debounceMillis) {
+        this.catalogSource = catalogSource;
+        this.productsService = productsService;
+        this.directory = directory;
+        this.debounceMillis = debounceMillis;
+    }
+
+    // Methods
+
+    /**
+     * Applies the files already in the directory (they may have changed while the app was down),
+     * then starts watching it. Runs once startup seeding is done, so the two never write the catalog at the same time.
+     */
+    @EventListener(StartupSeedingCompletedEvent.class)
+    public void start() {
+        if (directory == null || directory.isBlank()) {
+            return;
+        }
+
+        Path dir = Path.of(directory);
+        try {
+            WatchService watcher = dir.getFileSystem().newWatchService();
+            dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+            watchService = watcher;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not watch the catalog directory " + dir, e);
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + CATALOG_SUFFIX)) {
+            for (Path file : files) {
+                reload(file);
+            }
+        } catch (IOException e) {
+            System.out.println("--- Could not list the catalog directory " + dir + ": " + e.getMessage() + " ---");
+        }
+
+        Thread thread = new Thread(() -> watch(dir), "catalog-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("--- Watching " + dir.toAbsolutePath() + " for catalog changes ---");
+    }
+
+    private void watch(Path dir) {
+        try {
+            while (true) {
+                // Block for the first change, then keep collecting until the directory goes quiet
+                Set<Path> changed = new TreeSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() != OVERFLOW && event.context() instanceof Path name
+                                && name.toString().endsWith(CATALOG_SUFFIX)) {
+                            changed.add(dir.resolve(name));
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.out.println("--- Catalog directory " + dir + " is gone, no longer watching it ---");
+                        return;
+                    }
+                    key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                }
+
+                for (Path file : changed) {
+                    if (Files.isRegularFile(file)) {
+                        reload(file);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Parses one catalog file and applies it. Returns null (and changes nothing) if the file is invalid.
+     */
+    CatalogSyncResultDTO reload(Path file) {
+        try {
+            List<ProductsWOIDDTO> catalog = catalogSource.load(new FileSystemResource(file));
+            CatalogSyncResultDTO result = productsService.syncCatalog(catalog);
+            System.out.println("--- Reloaded catalog " + file.getFileName() + ": " + result.created() + " created, "
+                    + result.updated() + " updated, " + result.unchanged() + " unchanged ("
+                    + result.elapsedMillis() + " ms) ---");
+            return result;
+        } catch (RuntimeException e) {
+            System.out.println("--- Catalog " + file.getFileName() + " not applied: " + e.getMessage() + " ---");
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        WatchService watcher = watchService;
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+}
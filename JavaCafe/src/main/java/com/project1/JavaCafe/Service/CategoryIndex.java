@@ -0,0 +1,96 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CategoryFacetDTO;
+import com.project1.JavaCafe.DTO.ProductsDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable products-by-category (and by ID) view, built once per menu snapshot.
+ * Filtering by category or finding a product is a map lookup, and the facet numbers for the filter bar
+ * (product count, in-stock count, price range) are computed while building it.
+ */
+public final class CategoryIndex {
+    public static final String UNCATEGORIZED = "Uncategorized";
+    private static final String IN_STOCK = "IN_STOCK";
+
+    // Fields
+    private final List<ProductsDTO> products;
+    private final Map<String, List<ProductsDTO>> byCategory;
+    private final Map<Long, ProductsDTO> byId;
+    private final List<CategoryFacetDTO> facets;
+
+    // Constructor
+    private CategoryIndex(List<ProductsDTO> products, Map<String, List<ProductsDTO>> byCategory,
+                          Map<Long, ProductsDTO> byId, List<CategoryFacetDTO> facets) {
+        this.products = products;
+        this.byCategory = byCategory;
+        this.byId = byId;
+        this.facets = facets;
+    }
+
+    // Methods
+    public static CategoryIndex of(List<ProductsDTO> products) {
+        // Categories in name order, products in the order given
+        Map<String, List<ProductsDTO>> grouped = new TreeMap<>();
+        Map<Long, ProductsDTO> byId = new HashMap<>();
+        for (ProductsDTO product : products) {
+            grouped.computeIfAbsent(product.category(), category -> new ArrayList<>()).add(product);
+            byId.put(product.productId(), product);
+        }
+
+        Map<String, List<ProductsDTO>> byCategory = new LinkedHashMap<>();
+        List<CategoryFacetDTO> facets = new ArrayList<>(grouped.size());
+        for (Map.Entry<String, List<ProductsDTO>> entry : grouped.entrySet()) {
+            List<ProductsDTO> inCategory = List.copyOf(entry.getValue());
+            byCategory.put(entry.getKey(), inCategory);
+            facets.add(facet(entry.getKey(), inCategory));
+        }
+
+        return new CategoryIndex(List.copyOf(products), Collections.unmodifiableMap(byCategory),
+                Collections.unmodifiableMap(byId), List.copyOf(facets));
+    }
+
+    private static CategoryFacetDTO facet(String category, List<ProductsDTO> products) {
+        int inStock = 0;
+        BigDecimal min = null;
+        BigDecimal max = null;
+        for (ProductsDTO product : products) {
+            if (IN_STOCK.equals(product.availability())) {
+                inStock++;
+            }
+            BigDecimal price = product.basePrice();
+            if (price != null) {
+                min = min == null || price.compareTo(min) < 0 ? price : min;
+                max = max == null || price.compareTo(max) > 0 ? price : max;
+            }
+        }
+        return new CategoryFacetDTO(category, products.size(), inStock, min, max);
+    }
+
+    public List<ProductsDTO> all() {
+        return products;
+    }
+
+    // Products in one category (empty for an unknown one)
+    public List<ProductsDTO> get(String category) {
+        return byCategory.getOrDefault(category, List.of());
+    }
+
+    // The product with this ID, or null if it isn't on the menu
+    public ProductsDTO find(Long productId) {
+        return byId.get(productId);
+    }
+
+    // One entry per category, in category name order
+    public List<CategoryFacetDTO> facets() {
+        return facets;
+    }
+}
@@ -9,58 +9,79 @@ import com.project1.JavaCafe.Repository.AppUserRepository;
 import com.project1.JavaCafe.Repository.CustomerOrdersRepository;
 import com.project1.JavaCafe.Repository.OrderItemsRepository;
 import com.project1.JavaCafe.Repository.ProductsRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.util.ArrayList;   
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;       
+import java.util.Map;
 import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.util.ArrayList;   
-import java.util.List;        
-import java.util.Optional;
-import java.util.stream.Collectors; 
-
 @Service
 public class CustomerOrdersService {
+    // Orders still being worked on: what the kitchen board shows
+    public static final List<String> OPEN_STATUSES = List.of("PENDING", "PICKUP");
+    // The only moves an order can make: PENDING -> PICKUP -> COMPLETED
+    private static final Map<String, Set<String>> ALLOWED_TRANSITIONS = Map.of(
+            "PENDING", Set.of("PICKUP"),
+            "PICKUP", Set.of("COMPLETED")
+    );
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final SecureRandom GUEST_TOKENS = new SecureRandom();
+
     // Fields
     private final CustomerOrdersRepository CRepo;
     private final AppUserRepository ARepo;
     private final ProductsRepository PRepo;
     private final OrderItemsRepository IRepo;
+    private final SalesSummaryService salesSummary;
+    private final ApplicationEventPublisher events;
+    private final OptimisticLockRetry lockRetry;
 
     // Constructor
-    public CustomerOrdersService (CustomerOrdersRepository CRepo, AppUserRepository ARepo, ProductsRepository PRepo, OrderItemsRepository IRepo){
+    public CustomerOrdersService (CustomerOrdersRepository CRepo, AppUserRepository ARepo, ProductsRepository PRepo, OrderItemsRepository IRepo,
+                                  SalesSummaryService salesSummary, ApplicationEventPublisher events, OptimisticLockRetry lockRetry){
         this.CRepo = CRepo;
         this.ARepo = ARepo;
         this.PRepo = PRepo;
         this.IRepo = IRepo;
+        this.salesSummary = salesSummary;
+        this.events = events;
+        this.lockRetry = lockRetry;
     }
 
+    @Transactional
     public CustomerOrdersDTO createGuestOrder(GuestCheckoutDTO guestOrder) {
 
         // ----------------------------------------------------
-        // 1. CREATE AppUser ENTRY (Generates userId)
+        // 0. PRICE THE CART (one query for every product, before anything is written)
         // ----------------------------------------------------
 
-        // Create the AppUser entry, using the guest data and a null password
-        AppUser newGuestUser = new AppUser(
-                guestOrder.email(),          // Required field from input DTO
-                null,                        // Allowed due to nullable=true constraint
-                "GUEST",                     // Role is set to GUEST
-                guestOrder.firstName(),
-                guestOrder.lastName()
+        Map<Long, Products> productsById = loadCartProducts(
+                guestOrder.items().stream().map(CartItemInputDTO::productId).toList()
         );
 
-        // Save the new user. The database generates the userId here.
-        AppUser savedGuestUser = ARepo.save(newGuestUser);
-        AppUser user = savedGuestUser; // This object now holds the generated userId
+        // ----------------------------------------------------
+        // 1. FIND OR CREATE the guest AppUser (same transaction as the order)
+        // ----------------------------------------------------
+
+        AppUser user = findOrCreateGuest(guestOrder);
 
         // ----------------------------------------------------
         // 2. CALCULATE AND CREATE OrderItems
@@ -72,9 +93,8 @@ public class CustomerOrdersService {
         // Loop for secure price calculation and OrderItems creation
         for (CartItemInputDTO itemDto : guestOrder.items()) {
 
-            // Fetch authoritative price
-            Products product = PRepo.findById(itemDto.productId())
-                    .orElseThrow(() -> new RuntimeException("Product not found with ID: " + itemDto.productId()));
+            // Authoritative price from the batch lookup above
+            Products product = productsById.get(itemDto.productId());
 
             BigDecimal unitPrice = product.getBasePrice();
             BigDecimal lineItemCost = unitPrice.multiply(BigDecimal.valueOf(itemDto.quantity()));
@@ -96,11 +116,13 @@ public class CustomerOrdersService {
 
         // Create the main Order entity
         CustomerOrders order = new CustomerOrders(
-                user, // <-- LINKED to the savedGuestUser (with generated userId)
+                user, // <-- LINKED to the (new or returning) guest user
                 calculatedTotalCost,
                 LocalDate.now(),
                 "PENDING"
         );
+        // Guests have no login: this token is what proves a later lookup comes from them
+        order.setGuestToken(newGuestToken());
 
         // Establish bidirectional link for cascade save
         for (OrderItems item : orderItemsToSave) {
@@ -111,6 +133,12 @@ public class CustomerOrdersService {
         // Save the parent entity. This transaction saves CustomerOrders and all linked OrderItems.
         CustomerOrders savedOrder = CRepo.save(order);
 
+        // Same transaction: the daily sales row commits together with the order
+        salesSummary.recordOrder(savedOrder.getOrderDate(), countItems(savedOrder));
+
+        // Live order screens hear about it once the transaction commits
+        events.publishEvent(new OrderChangedEvent(OrderChangedEvent.CREATED, null, orderToSummaryDto(savedOrder)));
+
         return orderToDetailDto(savedOrder);
     }
 
@@ -129,21 +157,25 @@ public class CustomerOrdersService {
 
     // Methods
     // The method takes the order details DTO AND the userId (a Long)
+    @Transactional
     public CustomerOrdersDTO create(CustomerOrdersWOIDDTO dto, Long userId) {
 
         // 1. Fetch AppUser
         AppUser user = ARepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
 
+        // 2. Price the cart: one query for every product in the order
+        Map<Long, Products> productsById = loadCartProducts(
+                dto.items().stream().map(OrderItemsWOIDDTO::productId).toList()
+        );
+
         BigDecimal calculatedTotalCost = BigDecimal.ZERO;
         List<OrderItems> orderItemsToSave = new ArrayList<>();
 
         // ... (Loop remains the same: calculates cost and creates OrderItems entity) ...
         for (OrderItemsWOIDDTO itemDto : dto.items()) {
-            // ... (product lookup, price calculation) ...
-            Products product = PRepo.findById(itemDto.productId())
-                    .orElseThrow(() -> new RuntimeException("Product not found with ID: " + itemDto.productId()));
-            // ... (exception handling) ...
+            // ... (price calculation from the batch lookup) ...
+            Products product = productsById.get(itemDto.productId());
 
             BigDecimal unitPrice = product.getBasePrice();
             BigDecimal lineItemCost = unitPrice.multiply(BigDecimal.valueOf(itemDto.quantity()));
@@ -187,9 +219,69 @@ public class CustomerOrdersService {
         // 7. Remove item saving loop (IRepo.save is no longer needed)
         // The savedOrder object now contains the full and correct orderItems list in memory.
 
+        // 8. Add the order to its day's sales summary in the same transaction
+        salesSummary.recordOrder(savedOrder.getOrderDate(), countItems(savedOrder));
+
+        // 9. Notify live order screens (delivered after commit)
+        events.publishEvent(new OrderChangedEvent(OrderChangedEvent.CREATED, null, orderToSummaryDto(savedOrder)));
+
         return orderToDetailDto(savedOrder);
     }
 
+    /**
+     * Returns the GUEST account for the checkout's email, creating it on first use.
+     * Emails are normalized like every other account's, so "Jane@X.com " matches the registered "jane@x.com".
+     * A returning guest costs one indexed lookup; concurrent first checkouts both end up on the same row.
+     */
+    private AppUser findOrCreateGuest(GuestCheckoutDTO guestOrder) {
+        if (guestOrder.email() == null || guestOrder.email().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email is required for guest checkout");
+        }
+        String email = AppUser.normalizeEmail(guestOrder.email());
+
+        AppUser user = ARepo.findByEmail(email).orElseGet(() -> {
+            ARepo.insertGuestIfAbsent(email, guestOrder.firstName(), guestOrder.lastName());
+            return ARepo.findByEmail(email)
+                    .orElseThrow(() -> new IllegalStateException("Guest user missing after insert: " + email));
+        });
+
+        // Never attach a guest order to a registered account
+        if (!"GUEST".equals(user.getUserRole())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "An account exists for this email. Please log in to order.");
+        }
+        return user;
+    }
+
+    private int countItems(CustomerOrders order) {
+        return order.getOrderItems().stream()
+                .mapToInt(OrderItems::getQuantity)
+                .sum();
+    }
+
+    /**
+     * Resolves every product in a cart with a single findAllById query.
+     * Unknown IDs are collected and reported together in one exception.
+     */
+    private Map<Long, Products> loadCartProducts(List<Long> productIds) {
+        Set<Long> requestedIds = new LinkedHashSet<>(productIds);
+        requestedIds.remove(null);
+
+        Map<Long, Products> productsById = PRepo.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(Products::getProductId, Function.identity()));
+
+        List<String> missingIds = productIds.stream()
+                .distinct()
+                .filter(id -> id == null || !productsById.containsKey(id))
+                .map(String::valueOf)
+                .toList();
+
+        if (!missingIds.isEmpty()) {
+            throw new RuntimeException("Product not found with ID: " + String.join(", ", missingIds));
+        }
+
+        return productsById;
+    }
+
     private OrderItemsDTO OrderItemsToDto(OrderItems item) {
         // Requires OrderItemsDTO to be defined as a record:
         // public record OrderItemsDTO(Integer productId, String productName, Integer quantity, BigDecimal unitPrice) {}
@@ -209,7 +301,7 @@ public class CustomerOrdersService {
                 item.getProduct().getProductId(),
                 item.getQuantity(),
                 item.getUnitPrice(),
-                item.getProduct().getName()
+                item.getProductName() // snapshot taken when the order was placed, no Products load
         );
     }
 
@@ -225,7 +317,8 @@ public class CustomerOrdersService {
                 order.getTotalCost(),        // 3
                 order.getOrderDate(),   // 4
                 order.getStatus(), // 5
-                itemDTOs
+                itemDTOs,
+                order.getGuestToken()
         );
     }
 
@@ -243,6 +336,7 @@ public class CustomerOrdersService {
         );
     }
 
+    @Transactional
     public CustomerOrdersSummaryDTO update(Integer id, CustomerOrdersSummaryDTO dto) { // Note the DTO change
 
         // 1. Find the existing order entity by ID.
@@ -255,7 +349,11 @@ public class CustomerOrdersService {
         // 2. Apply updates using null checks (PATCH logic)
 
         // Check 1: Update Status (Most common for orders)
-        if (dto.status() != null) {
+        // Same transition table as changeStatus; a change made since the order was
+        // loaded bumps its version, so the save below reports it (409) instead of overwriting it
+        String previousStatus = order.getStatus();
+        if (dto.status() != null && !dto.status().equals(previousStatus)) {
+            checkTransition(previousStatus, dto.status());
             order.setStatus(dto.status());
         }
 
@@ -265,30 +363,117 @@ public class CustomerOrdersService {
         }
 
         // Check 3: Update Order Date (If required, though rare)
-        if (dto.orderDate() != null) {
+        // Moving an order to another day moves its counts in the sales summary too
+        if (dto.orderDate() != null && !dto.orderDate().equals(order.getOrderDate())) {
+            salesSummary.moveOrder(order.getOrderDate(), dto.orderDate(), countItems(order));
             order.setOrderDate(dto.orderDate());
         }
 
         // 3. Save the updated entity back to the database.
-        CustomerOrders updatedOrder = CRepo.save(order); // Save the order entity
+        //    Flushed here so a concurrent edit (version bumped since our read) becomes a 409
+        CustomerOrders updatedOrder = lockRetry.once(
+                "orders.update",
+                "Order " + id + " was changed by someone else, reload it and try again",
+                () -> CRepo.saveAndFlush(order)
+        );
 
         // 4. Convert the saved entity back to the DTO for the response.
-        // NOTE: You need to use your OrderToSummaryDto conversion method here.
-        return orderToSummaryDto(updatedOrder); // Replace with your actual conversion method name
+        CustomerOrdersSummaryDTO summary = orderToSummaryDto(updatedOrder);
+
+        // 5. Push status transitions to live order screens (delivered after commit)
+        if (!Objects.equals(previousStatus, updatedOrder.getStatus())) {
+            events.publishEvent(new OrderChangedEvent(OrderChangedEvent.STATUS_CHANGED, previousStatus, summary));
+        }
+        return summary;
+    }
+
+    /**
+     * Moves an order to its next status with a single conditional UPDATE, only if it is
+     * still in the status the caller saw. Two screens racing on the same order:
+     * the first one wins, the second gets a 409 and can refresh.
+     */
+    @Transactional
+    public CustomerOrdersSummaryDTO changeStatus(Integer id, String expectedStatus, String newStatus) {
+        checkTransition(expectedStatus, newStatus);
+
+        if (CRepo.updateStatus(id, expectedStatus, newStatus) == 0) {
+            // Nothing matched: either there is no such order, or someone else moved it first
+            if (!CRepo.existsById(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found with ID: " + id);
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Order " + id + " is no longer " + expectedStatus);
+        }
+
+        CustomerOrdersSummaryDTO summary = CRepo.findSummaryById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found with ID: " + id));
+
+        // Push the transition to live order screens (delivered after commit)
+        events.publishEvent(new OrderChangedEvent(OrderChangedEvent.STATUS_CHANGED, expectedStatus, summary));
+        return summary;
+    }
+
+    private void checkTransition(String fromStatus, String toStatus) {
+        if (fromStatus == null || toStatus == null
+                || !ALLOWED_TRANSITIONS.getOrDefault(fromStatus, Set.of()).contains(toStatus)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "An order can't move from " + fromStatus + " to " + toStatus);
+        }
     }
 
-    public List<CustomerOrdersSummaryDTO> getAllOrders() {
+    public List<CustomerOrdersSummaryDTO> getAllOrders(Integer afterOrderId, Integer limit) {
 
         // Define the statuses you want to include
-        final List<String> targetStatuses = List.of("PENDING", "PICKUP");
+        final List<String> targetStatuses = OPEN_STATUSES;
 
-        // 1. Use the new repository method to fetch only the filtered orders
-        List<CustomerOrders> filteredOrders = CRepo.findByStatusIn(targetStatuses);
+        // 1. One projection query per page: orders after the cursor, oldest first
+        int pageSize = (limit == null) ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        int cursor = (afterOrderId == null) ? 0 : afterOrderId;
 
-        // 2. Stream the filtered list and convert each entity to a DTO
-        return filteredOrders.stream()
+        // 2. The rows are already CustomerOrdersSummaryDTOs, nothing left to map
+        return CRepo.findSummariesByStatusIn(targetStatuses, cursor, Limit.of(pageSize));
+    }
+
+    /**
+     * One page of a customer's orders, newest first. Pass the last orderId of a page
+     * as afterOrderId to get the next one; each page is a single index range read.
+     */
+    public List<CustomerOrdersSummaryDTO> getOrderHistory(Long userId, Integer afterOrderId, Integer limit) {
+        Limit pageSize = Limit.of((limit == null) ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE));
+
+        if (afterOrderId == null) {
+            return CRepo.findHistory(userId, pageSize);
+        }
+
+        // The cursor is just an orderId, so look up its date (a primary key read)
+        LocalDate afterOrderDate = CRepo.findOrderDate(afterOrderId, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown order for 'after': " + afterOrderId));
+        return CRepo.findHistoryAfter(userId, afterOrderDate, afterOrderId, pageSize);
+    }
+
+    /**
+     * Guest order lookup (guests have no token): the order is found only if it belongs to
+     * the GUEST account for this checkout email. Registered accounts' orders are never returned here.
+     */
+    public CustomerOrdersSummaryDTO getGuestOrder(Integer orderId, String email, String token) {
+        if (email == null || email.isBlank() || token == null || token.isBlank()) {
+            return null;
+        }
+        return ARepo.findByEmail(email)
+                .filter(user -> "GUEST".equals(user.getUserRole()))
+                .flatMap(user -> CRepo.findByOrderIdAndUser_UserId(orderId, user.getUserId()))
+                .filter(order -> order.getGuestToken() != null && MessageDigest.isEqual(
+                        order.getGuestToken().getBytes(StandardCharsets.UTF_8),
+                        token.getBytes(StandardCharsets.UTF_8)))
                 .map(this::orderToSummaryDto)
-                .toList(); // or collect(Collectors.toList());
+                .orElse(null);
+    }
+
+    // 192 random bits, URL-safe so it can go in a query string as is
+    private static String newGuestToken() {
+        byte[] bytes = new byte[24];
+        GUEST_TOKENS.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     public CustomerOrdersSummaryDTO getByIdAndUserId(Integer orderId, Long userId) {
@@ -313,7 +498,8 @@ public class CustomerOrdersService {
         // 1. Secure Database Lookup: Enforces Horizontal Access Control
         // CRepo.findByOrderIdAndAppUserId requires BOTH the requested Order ID
         // and the User ID extracted from the authenticated JWT token.
-        Optional<CustomerOrders> order = CRepo.findByOrderIdAndUser_UserId(orderId, userId);
+        // The entity graph fetches the items in the same query, so mapping below never lazy-loads.
+        Optional<CustomerOrders> order = CRepo.findWithItemsByOrderIdAndUser_UserId(orderId, userId);
 
         if (order.isEmpty()) {
             // If the order is not found OR doesn't belong to the user, return null
@@ -0,0 +1,178 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersDTO;
+import com.project1.JavaCafe.Model.IdempotencyRecord;
+import com.project1.JavaCafe.Repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes order submission safe to retry with an Idempotency-Key header.
+ * The first request for a key runs the order write; duplicates get the same CustomerOrdersDTO back.
+ * Duplicates that arrive while the first is still running wait for its result instead of racing it.
+ * Keys live in a bounded in-memory map and in the IdempotencyKeys table, written in the order's transaction.
+ * Every write (keyed or not) goes through OrderIngestionQueue, so the key check, the order and the key row
+ * share one transaction whether orders are committed one at a time or in groups.
+ */
+@Service
+public class IdempotencyService {
+    // In-flight or finished submission for one key
+    private record Entry(CompletableFuture<CustomerOrdersDTO> result, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+    // Length of IdempotencyKeys.idempotencyKey, which holds "<scope>:<key>"
+    private static final int MAX_ID_LENGTH = 400;
+
+    // Fields
+    private final IdempotencyRecordRepository repository;
+    private final CustomerOrdersService orderService;
+    private final OrderIngestionQueue ingestion;
+    private final TransactionTemplate transaction;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long waitMillis;
+    private volatile long lastPurgeMillis = System.currentTimeMillis();
+
+    // Constructor
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              CustomerOrdersService orderService,
+                              OrderIngestionQueue ingestion,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.cache.max-entries:10000}") int maxEntries,
+                              @Value("${idempotency.wait-seconds:30}") long waitSeconds) {
+        this.repository = repository;
+        this.orderService = orderService;
+        this.ingestion = ingestion;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.maxEntries = maxEntries;
+        this.waitMillis = TimeUnit.SECONDS.toMillis(waitSeconds);
+    }
+
+    // Methods
+
+    /**
+     * Runs the order write once per (scope, key). Without a key the write simply runs.
+     * The scope ties keys to a caller ("user:5", "guest:jane@x.com") so clients can't replay each other's orders.
+     */
+    public CustomerOrdersDTO submit(String scope, String key, Supplier<CustomerOrdersDTO> createOrder) {
+        if (key == null || key.isBlank()) {
+            return ingestion.submit(createOrder);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY_HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = scope + ":" + key;
+        if (id.length() > MAX_ID_LENGTH) {
+            // e.g. a very long guest email plus a long key: reject it here rather than fail the insert
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY_HEADER + " is too long for this account");
+        }
+        long now = System.currentTimeMillis();
+        evictIfFull(now);
+
+        Entry mine = new Entry(new CompletableFuture<>(), now + ttlMillis);
+        Entry winner = entries.compute(id, (k, current) -> (current == null || current.isExpired(now)) ? mine : current);
+        if (winner != mine) {
+            // Same key seen before (or still in flight): answer with the first request's result
+            return await(winner.result());
+        }
+
+        try {
+            CustomerOrdersDTO result = ingestion.submit(() -> createOnce(id, createOrder));
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // Failed writes aren't remembered, so the client can retry with the same key
+            entries.remove(id, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Claims the key in the table, then writes the order and attaches it to the key, all in one transaction
+     * (the group-commit batch's, when that is on). If the key is already held (earlier run, other instance),
+     * the stored order is replayed instead. The claim never raises a duplicate-key error,
+     * so a shared batch transaction is never left aborted.
+     */
+    private CustomerOrdersDTO createOnce(String id, Supplier<CustomerOrdersDTO> createOrder) {
+        return transaction.execute(status -> {
+            Instant now = Instant.now();
+            repository.deleteExpired(id, now.minusMillis(ttlMillis));
+
+            if (repository.claim(id, now) == 0) {
+                return repository.findById(id)
+                        .map(this::replay)
+                        .orElseThrow(() -> new IllegalStateException("Idempotency key is held but could not be read"));
+            }
+
+            CustomerOrdersDTO created = createOrder.get();
+            repository.attachOrder(id, created.orderId(), created.userId());
+            return created;
+        });
+    }
+
+    private CustomerOrdersDTO replay(IdempotencyRecord record) {
+        if (record.getOrderId() == null) {
+            throw new IllegalStateException("Idempotency key has no order attached");
+        }
+        CustomerOrdersDTO original = orderService.getDetailsWithItems(record.getOrderId(), record.getUserId());
+        if (original == null) {
+            throw new IllegalStateException("Order " + record.getOrderId() + " for idempotency key no longer exists");
+        }
+        return original;
+    }
+
+    private CustomerOrdersDTO await(CompletableFuture<CustomerOrdersDTO> result) {
+        try {
+            return result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the original request");
+        }
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            if (entries.size() >= maxEntries) {
+                // Finished keys are also in the table, so only in-flight ones must stay in memory
+                entries.values().removeIf(entry -> entry.result().isDone());
+            }
+        }
+
+        // Expired rows are ignored on read; sweep them from the table at most once per TTL window
+        if (now - lastPurgeMillis >= ttlMillis) {
+            lastPurgeMillis = now;
+            transaction.executeWithoutResult(status -> repository.deleteCreatedBefore(Instant.ofEpochMilli(now - ttlMillis)));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.Service.ProductsService.MenuSnapshot;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the public menu responses as ready-to-send JSON bytes (plain and gzipped) with strong ETags.
+ * Entries are tied to the menu snapshot version, so any product write makes them stale automatically.
+ */
+@Service
+public class MenuRepresentationCache {
+    // Cached body of one menu resource for one snapshot version
+    public record CachedRepresentation(
+            long version,
+            String etag,
+            Instant lastModified,
+            byte[] json,
+            byte[] gzippedJson,
+            boolean empty
+    ) {}
+
+    public static final String MENU_VERSION_HEADER = "X-Menu-Version";
+    private static final String GZIP = "gzip";
+
+    // Fields
+    private final ProductsService productsService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CachedRepresentation> representations = new ConcurrentHashMap<>();
+
+    // Constructor
+    public MenuRepresentationCache(ProductsService productsService, ObjectMapper objectMapper) {
+        this.productsService = productsService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Methods
+
+    /**
+     * Returns the cached representation for the key, serializing the loader's result only when
+     * the key has never been seen or the menu snapshot has moved on since it was cached.
+     * Empty collections and maps are not cached so arbitrary filter values can't grow the map.
+     */
+    public CachedRepresentation get(String key, Supplier<?> loader) {
+        MenuSnapshot snapshot = productsService.getMenuSnapshot();
+
+        CachedRepresentation cached = representations.get(key);
+        if (cached != null && cached.version() == snapshot.version()) {
+            return cached;
+        }
+
+        CachedRepresentation fresh = serialize(snapshot, loader.get());
+        if (!fresh.empty()) {
+            representations.put(key, fresh);
+        }
+        return fresh;
+    }
+
+    /**
+     * Builds the HTTP response for a cached representation.
+     * Spring answers 304 itself when the request's If-None-Match / If-Modified-Since match,
+     * so a revalidation never writes the body.
+     */
+    public ResponseEntity<byte[]> toResponse(CachedRepresentation representation, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .lastModified(representation.lastModified())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(MENU_VERSION_HEADER, String.valueOf(representation.version()));
+
+        if (gzip) {
+            // Different bytes means a different strong ETag
+            return builder
+                    .eTag(representation.etag() + "-" + GZIP)
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .body(representation.gzippedJson());
+        }
+
+        return builder
+                .eTag(representation.etag())
+                .body(representation.json());
+    }
+
+    /**
+     * True if the Accept-Encoding header allows gzip: listed (or "x-gzip") with a q-value above 0,
+     * or not listed but covered by "*" above 0. "gzip;q=0" explicitly refuses it.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean acceptable = qValue(parts) > 0;
+            if (name.equals(GZIP) || name.equals("x-" + GZIP)) {
+                return acceptable;
+            }
+            if (name.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    // "q=0.5" among the parameters, 1 when absent, 0 when malformed
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && (param.startsWith("q=") || param.startsWith("Q="))) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private CachedRepresentation serialize(MenuSnapshot snapshot, Object body) {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        String etag = snapshot.version() + "-" + sha256Prefix(json);
+        boolean empty = (body instanceof Collection<?> collection && collection.isEmpty())
+                || (body instanceof Map<?, ?> map && map.isEmpty());
+
+        return new CachedRepresentation(snapshot.version(), etag, snapshot.builtAt(), json, gzip(json), empty);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256Prefix(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.OptimisticLockStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Handles optimistic-lock conflicts on the versioned entities (CustomerOrders, Products).
+ * Internal writers get a few retries with jittered backoff, each attempt in a fresh transaction.
+ * User edits are not retried (the user was looking at stale data): they get a 409 to reload.
+ * Both paths are counted per operation, so conflict rates can be read off the admin metrics.
+ */
+@Service
+public class OptimisticLockRetry {
+    private static final class Counters {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+
+    // Fields
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    // Constructor
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager,
+                               @Value("${optimistic-lock.retry.max-attempts:4}") int maxAttempts,
+                               @Value("${optimistic-lock.retry.base-backoff-millis:10}") long baseBackoffMillis,
+                               @Value("${optimistic-lock.retry.max-backoff-millis:200}") long maxBackoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    // Methods
+
+    /**
+     * Runs an internal write in its own transaction, retrying on a version conflict.
+     * Must not be called inside another transaction: a retry there would replay against the same stale state.
+     * @throws OptimisticLockingFailureException once maxAttempts conflicts in a row have happened
+     */
+    public <T> T inTransaction(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(operation + " retries in its own transaction, call it outside of one");
+        }
+
+        Counters stats = counters(operation);
+        for (int attempt = 1; ; attempt++) {
+            stats.attempts.increment();
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                stats.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    stats.exhausted.increment();
+                    throw e;
+                }
+                stats.retries.increment();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Runs a user edit once. A version conflict becomes a 409 with the given message.
+     * The work must flush (e.g. saveAndFlush) so the conflict shows up here and not at commit.
+     */
+    public <T> T once(String operation, String conflictMessage, Supplier<T> work) {
+        Counters stats = counters(operation);
+        stats.attempts.increment();
+        try {
+            return work.get();
+        } catch (OptimisticLockingFailureException e) {
+            stats.conflicts.increment();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, conflictMessage, e);
+        }
+    }
+
+    public List<OptimisticLockStatsDTO> stats() {
+        return counters.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .map(entry -> new OptimisticLockStatsDTO(
+                        entry.getKey(),
+                        entry.getValue().attempts.sum(),
+                        entry.getValue().conflicts.sum(),
+                        entry.getValue().retries.sum(),
+                        entry.getValue().exhausted.sum()))
+                .toList();
+    }
+
+    private Counters counters(String operation) {
+        return counters.computeIfAbsent(operation, key -> new Counters());
+    }
+
+    // Full jitter: a random wait up to an exponentially growing cap, so writers that collided don't collide again
+    private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        long cap = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
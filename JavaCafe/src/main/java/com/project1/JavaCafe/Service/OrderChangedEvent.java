@@ -0,0 +1,14 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO;
+
+/**
+ * Published by CustomerOrdersService when an order is created or its status changes,
+ * and delivered to SSE subscribers once the transaction commits.
+ * previousStatus is null for new orders.
+ */
+public record OrderChangedEvent(String type, String previousStatus, CustomerOrdersSummaryDTO order) {
+    public static final String CREATED = "order-created";
+    public static final String STATUS_CHANGED = "order-status-changed";
+    public static final String SNAPSHOT = "order-snapshot";
+}
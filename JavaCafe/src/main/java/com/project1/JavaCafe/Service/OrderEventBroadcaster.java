@@ -0,0 +1,205 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO;
+import com.project1.JavaCafe.DTO.OrderEventStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pushes order creation and status changes to connected screens over Server-Sent Events,
+ * so the kitchen board and customers don't have to poll.
+ * Each subscriber has its own bounded buffer: if a screen can't keep up, its oldest
+ * undelivered events are dropped, never the newest, and other subscribers are unaffected.
+ */
+@Service
+public class OrderEventBroadcaster {
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Predicate<OrderChangedEvent> filter;
+        private final ArrayDeque<OrderChangedEvent> buffer = new ArrayDeque<>();
+        private boolean sending; // guarded by this
+
+        private Subscriber(SseEmitter emitter, Predicate<OrderChangedEvent> filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+    }
+
+    // Queued like an event, but written as an SSE comment the browser ignores
+    private static final OrderChangedEvent HEARTBEAT = new OrderChangedEvent("heartbeat", null, null);
+
+    // Fields
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // One virtual thread per busy subscriber, so a slow socket only ever blocks its own deliveries
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "order-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    // Metrics
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Constructor
+    public OrderEventBroadcaster(@Value("${orders.events.buffer-size:100}") int bufferSize,
+                                 @Value("${orders.events.max-subscribers:500}") int maxSubscribers,
+                                 @Value("${orders.events.timeout-minutes:30}") long timeoutMinutes,
+                                 @Value("${orders.events.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+
+        // A closed tab is only noticed when a write fails, so write something every now and then
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    // Methods
+
+    /**
+     * Opens a stream of the events accepted by the filter, starting with a snapshot
+     * (e.g. the order's current state) so the client never needs an extra poll.
+     * The snapshot is read after the subscriber is registered, so no change can slip in between.
+     * If reading it throws (e.g. a 404 for an unknown order), the subscriber is dropped and the exception rethrown.
+     */
+    public SseEmitter subscribe(Predicate<OrderChangedEvent> filter, Supplier<List<CustomerOrdersSummaryDTO>> snapshot) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open order streams");
+        }
+
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        List<CustomerOrdersSummaryDTO> current;
+        try {
+            current = snapshot.get();
+        } catch (RuntimeException e) {
+            subscribers.remove(subscriber);
+            emitter.complete();
+            throw e;
+        }
+        for (int i = current.size() - 1; i >= 0; i--) {
+            enqueue(subscriber, new OrderChangedEvent(OrderChangedEvent.SNAPSHOT, null, current.get(i)), true);
+        }
+        return emitter;
+    }
+
+    // Only after commit: screens never see an order that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        published.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.test(event)) {
+                enqueue(subscriber, event, false);
+            }
+        }
+    }
+
+    public OrderEventStatsDTO stats() {
+        return new OrderEventStatsDTO(subscribers.size(), published.get(), delivered.get(), dropped.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    // Overridden in tests to capture what would be written to the socket
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                // Busy subscribers are already being written to
+                if (subscriber.sending) {
+                    continue;
+                }
+            }
+            enqueue(subscriber, HEARTBEAT, false);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, OrderChangedEvent event, boolean atFront) {
+        boolean startSending;
+        synchronized (subscriber) {
+            if (subscriber.buffer.size() >= bufferSize) {
+                subscriber.buffer.pollFirst();
+                dropped.incrementAndGet();
+            }
+            if (atFront) {
+                subscriber.buffer.addFirst(event);
+            } else {
+                subscriber.buffer.addLast(event);
+            }
+            startSending = !subscriber.sending;
+            subscriber.sending = true;
+        }
+        if (startSending) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            OrderChangedEvent next;
+            synchronized (subscriber) {
+                next = subscriber.buffer.pollFirst();
+                if (next == null) {
+                    subscriber.sending = false;
+                    return;
+                }
+            }
+
+            try {
+                if (next == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(next.type())
+                        .data(next.order(), MediaType.APPLICATION_JSON));
+                delivered.incrementAndGet();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away: forget it (sending stays true so nothing is scheduled for it again)
+                // and complete the emitter, so the request is released instead of waiting for its timeout
+                subscribers.remove(subscriber);
+                synchronized (subscriber) {
+                    subscriber.buffer.clear();
+                }
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersDTO;
+import com.project1.JavaCafe.DTO.OrderIngestionStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Optional group commit for order writes (orders.group-commit.enabled).
+ * Submitted writes wait on a bounded queue; one writer thread drains them into a single transaction
+ * every max-wait-millis or every max-batch orders, and each caller returns once its batch commits.
+ * If any order in a batch fails, the batch is rolled back and replayed one order per transaction,
+ * so only the bad order fails.
+ * When disabled, submit() just runs the write on the caller's thread (one transaction per order).
+ * A caller waits at most wait-seconds for its batch; if the writer is stuck (e.g. on a lock) it gets a 503 instead.
+ */
+@Service
+public class OrderIngestionQueue {
+    private record PendingOrder(Supplier<CustomerOrdersDTO> write, CompletableFuture<CustomerOrdersDTO> result) {}
+
+    // Fields
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final long callerWaitMillis;
+    private final BlockingQueue<PendingOrder> queue;
+    private final TransactionTemplate transaction;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong orders = new AtomicLong();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    // Constructor
+    public OrderIngestionQueue(PlatformTransactionManager transactionManager,
+                               @Value("${orders.group-commit.enabled:false}") boolean enabled,
+                               @Value("${orders.group-commit.max-batch:32}") int maxBatch,
+                               @Value("${orders.group-commit.max-wait-millis:5}") long maxWaitMillis,
+                               @Value("${orders.group-commit.queue-capacity:1000}") int queueCapacity,
+                               @Value("${orders.group-commit.wait-seconds:10}") long waitSeconds) {
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.callerWaitMillis = TimeUnit.SECONDS.toMillis(waitSeconds);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.transaction = new TransactionTemplate(transactionManager);
+
+        if (enabled) {
+            this.writer = new Thread(this::drainLoop, "order-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    // Methods
+
+    /**
+     * Runs an order write and returns its result once it has committed.
+     * @throws RejectedExecutionException if group commit is on and the queue is full,
+     *         or the write did not finish within wait-seconds
+     */
+    public CustomerOrdersDTO submit(Supplier<CustomerOrdersDTO> write) {
+        if (!enabled) {
+            return write.get();
+        }
+
+        PendingOrder pending = new PendingOrder(write, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Order queue is full");
+        }
+
+        try {
+            return pending.result().get(callerWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.incrementAndGet();
+            // Withdraw the write if the writer hasn't taken it yet. If it has, it may still commit:
+            // a retry with the same Idempotency-Key then gets that order back instead of a second one.
+            pending.result().cancel(false);
+            throw new RejectedExecutionException("Order write did not finish in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result().cancel(false);
+            throw new RejectedExecutionException("Interrupted while waiting for the order write");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public OrderIngestionStatsDTO stats() {
+        long batchCount = batches.get();
+        long orderCount = orders.get();
+        return new OrderIngestionStatsDTO(
+                enabled,
+                batchCount,
+                orderCount,
+                batchCount == 0 ? 0 : (double) orderCount / batchCount,
+                maxBatchSize.get(),
+                fallbacks.get(),
+                rejected.get(),
+                timedOut.get(),
+                queue.size()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Keep collecting until the batch is full or the first order has waited max-wait
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Anything still queued (or mid-batch) after shutdown is turned away rather than left hanging
+            batch.addAll(queue);
+            RejectedExecutionException stopped = new RejectedExecutionException("Order queue is shutting down");
+            batch.forEach(pending -> pending.result().completeExceptionally(stopped));
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        // Callers that gave up before their turn are skipped, so nothing is written on their behalf
+        batch.removeIf(pending -> pending.result().isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<CustomerOrdersDTO> results;
+        try {
+            results = transaction.execute(status -> batch.stream()
+                    .map(pending -> pending.write().get())
+                    .toList());
+        } catch (RuntimeException e) {
+            // One bad order spoils the shared transaction: replay each on its own so only that one fails
+            fallbacks.incrementAndGet();
+            record(batch.size());
+            batch.forEach(this::commitAlone);
+            return;
+        }
+
+        // Count the batch before releasing callers so stats never lag behind what they saw
+        record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results.get(i));
+        }
+    }
+
+    private void commitAlone(PendingOrder pending) {
+        try {
+            pending.result().complete(transaction.execute(status -> pending.write().get()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private void record(int batchSize) {
+        batches.incrementAndGet();
+        orders.addAndGet(batchSize);
+        maxBatchSize.accumulateAndGet(batchSize, Math::max);
+    }
+}
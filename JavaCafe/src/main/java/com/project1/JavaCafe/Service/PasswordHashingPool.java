@@ -0,0 +1,112 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.PasswordPoolStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Small, fixed-size pool for BCrypt-heavy work (login checks and registration hashing).
+ * Keeps password work off the Tomcat request threads and caps how much of it can queue up,
+ * so a login storm can't starve the menu and order endpoints.
+ * When the queue is full, submit() throws RejectedExecutionException right away.
+ */
+@Service
+public class PasswordHashingPool {
+    // Fields
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+
+    // Metrics (nanoseconds)
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalQueueWait = new AtomicLong();
+    private final AtomicLong maxQueueWait = new AtomicLong();
+    private final AtomicLong totalHashTime = new AtomicLong();
+    private final AtomicLong maxHashTime = new AtomicLong();
+
+    // Constructor
+    public PasswordHashingPool(@Value("${auth.password-pool.threads:2}") int threads,
+                               @Value("${auth.password-pool.queue-capacity:50}") int queueCapacity,
+                               @Value("${auth.password-pool.retry-after-seconds:2}") int retryAfterSeconds) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-pool-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // Methods
+
+    /**
+     * Runs the password work on the pool, timing queue wait and run time separately.
+     * @throws RejectedExecutionException if the pool's queue is already full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                record(totalQueueWait, maxQueueWait, startedAt - submittedAt);
+                try {
+                    return work.get();
+                } finally {
+                    record(totalHashTime, maxHashTime, System.nanoTime() - startedAt);
+                    completed.incrementAndGet();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    // Seconds a rejected client should wait before retrying
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public PasswordPoolStatsDTO stats() {
+        long done = Math.max(completed.get(), 1);
+        return new PasswordPoolStatsDTO(
+                completed.get(),
+                rejected.get(),
+                executor.getQueue().size(),
+                toMillis(totalQueueWait.get()) / done,
+                toMillis(maxQueueWait.get()),
+                toMillis(totalHashTime.get()) / done,
+                toMillis(maxHashTime.get())
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static void record(AtomicLong total, AtomicLong max, long nanos) {
+        total.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -5,21 +5,47 @@ import com.project1.JavaCafe.Model.Products;
 //import com.project1.JavaCafe.DTO.ProductsDTO;
 import com.project1.JavaCafe.Repository.ProductsRepository;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class ProductsService {
+    /**
+     * Immutable, versioned view of the public menu, plus the full products indexed by category.
+     * A new snapshot is built and swapped in whenever a product is written,
+     * so readers never see a half-updated menu and never touch the database.
+     */
+    public record MenuSnapshot(long version, Instant builtAt, List<MenuProductsDTO> menuProducts, CategoryIndex categories) {}
+
+    // Catalog entries and products are matched on (category, name)
+    private record CatalogKey(String category, String name) {}
+
+    private record CatalogChanges(int created, int updated) {}
+
+    // Upper bound for one batch description request
+    public static final int MAX_DESCRIPTION_IDS = 200;
+
     // Fields
     private final ProductsRepository repository;
+    private final OptimisticLockRetry lockRetry;
+    private final CatalogSource catalogSource;
+    private volatile MenuSnapshot menuSnapshot;
 
     // Constructor
-    public ProductsService (ProductsRepository repository){
+    public ProductsService (ProductsRepository repository, OptimisticLockRetry lockRetry, CatalogSource catalogSource){
         this.repository = repository;
+        this.lockRetry = lockRetry;
+        this.catalogSource = catalogSource;
     }
 
 
@@ -38,23 +64,23 @@ public class ProductsService {
     }
 
     public List<ProductsDTO> findAllOrFilterByCategory(String categoryName) {
-        List<Products> products;
+        CategoryIndex categories = getMenuSnapshot().categories();
 
         if (categoryName == null) {
             // Case 1: "All" products (No filter applied)
-            products = repository.findAll();
-        } else {
-            // Case 2: Filtered by category name
-            products = repository.findByCategory(categoryName);
+            return categories.all();
         }
+        // Case 2: Filtered by category name, a lookup in the snapshot's index
+        return categories.get(categoryName);
+    }
 
-        return products.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // Facet data for the category filter bar: product/in-stock counts and price range per category
+    public List<CategoryFacetDTO> getCategoryFacets() {
+        return getMenuSnapshot().categories().facets();
     }
 
     private ProductsDTO convertToDto(Products product) {
-        String catName = product.getCategory() != null ? product.getCategory() : "Uncategorized";
+        String catName = product.getCategory() != null ? product.getCategory() : CategoryIndex.UNCATEGORIZED;
 
         return new ProductsDTO(
                 product.getProductId(),
@@ -62,14 +88,19 @@ public class ProductsService {
                 product.getName(),
                 product.getBasePrice(),
                 product.getDescription(),
-                product.getAvailability()
+                product.getAvailability(),
+                product.getVersion()
         );
     }
 
 
     public ProductsDTO create(ProductsWOIDDTO dto) {
         Products product = new Products(dto.category(), dto.name(), dto.basePrice(), dto.description(), dto.availability());
-        return ProductsToDto(repository.save(product));
+        ProductsDTO created = ProductsToDto(repository.save(product));
+
+        // The menu changed, publish a new snapshot
+        refreshMenuSnapshot();
+        return created;
     }
 
     private ProductsDTO ProductsToDto(Products product) {
@@ -79,7 +110,8 @@ public class ProductsService {
                 product.getName(),       
                 product.getBasePrice(),  
                 product.getDescription(),
-                product.getAvailability() 
+                product.getAvailability(),
+                product.getVersion()
         );
     }
 
@@ -107,7 +139,36 @@ public class ProductsService {
     }
 
     public List<MenuProductsDTO> getAllMenuProducts() {
-        return repository.findAll().stream().map(this::ProductToMenuDto).toList();
+        return getMenuSnapshot().menuProducts();
+    }
+
+    /**
+     * Returns the current menu snapshot, loading it from the database on first use only.
+     */
+    public MenuSnapshot getMenuSnapshot() {
+        MenuSnapshot snapshot = menuSnapshot;
+        if (snapshot == null) {
+            snapshot = refreshMenuSnapshot();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the menu snapshot (and its category index) from the Products table and bumps its version.
+     * Synchronized so two concurrent writers can't publish out of order.
+     */
+    public synchronized MenuSnapshot refreshMenuSnapshot() {
+        long nextVersion = menuSnapshot == null ? 1 : menuSnapshot.version() + 1;
+
+        List<Products> products = repository.findAll();
+        List<MenuProductsDTO> menuProducts = products.stream()
+                .map(this::ProductToMenuDto)
+                .toList();
+        CategoryIndex categories = CategoryIndex.of(products.stream().map(this::convertToDto).toList());
+
+        MenuSnapshot snapshot = new MenuSnapshot(nextVersion, Instant.now(), menuProducts, categories);
+        menuSnapshot = snapshot;
+        return snapshot;
     }
 
     public MenuDescriptionDTO getProductDescription(Long productId) {
@@ -121,6 +182,36 @@ public class ProductsService {
         return new MenuDescriptionDTO(product.getDescription());
     }
 
+    /**
+     * ID -> description for a batch of products, straight from the menu snapshot (no query).
+     * In request order; IDs that aren't on the menu are left out.
+     */
+    public Map<Long, String> getProductDescriptions(List<Long> productIds) {
+        if (productIds.isEmpty() || productIds.size() > MAX_DESCRIPTION_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + MAX_DESCRIPTION_IDS + " product IDs can be requested at once");
+        }
+
+        CategoryIndex categories = getMenuSnapshot().categories();
+        Map<Long, String> descriptions = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            ProductsDTO product = categories.find(productId);
+            if (product != null) {
+                descriptions.put(productId, product.description());
+            }
+        }
+        return descriptions;
+    }
+
+    // ID -> description for every product in a category (empty for an unknown one)
+    public Map<Long, String> getCategoryDescriptions(String categoryName) {
+        Map<Long, String> descriptions = new LinkedHashMap<>();
+        for (ProductsDTO product : getMenuSnapshot().categories().get(categoryName)) {
+            descriptions.put(product.productId(), product.description());
+        }
+        return descriptions;
+    }
+
     public ProductsDTO update(Long id, ProductsDTO dto) {
 
         Products product = repository.findById(id)
@@ -148,132 +239,100 @@ public class ProductsService {
             product.setAvailability(dto.availability());
         }
 
-        Products updatedProduct = repository.save(product);
-
+        // A stale version (from the DTO, or a concurrent edit that landed in between) is a 409
+        Products updatedProduct = lockRetry.once(
+                "products.update",
+                "Product " + id + " was changed by someone else, reload it and try again",
+                () -> {
+                    if (dto.version() != null && !dto.version().equals(product.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(Products.class, id);
+                    }
+                    return repository.saveAndFlush(product);
+                });
+
+        // The menu changed, publish a new snapshot
+        refreshMenuSnapshot();
         return ProductsToDto(updatedProduct);
     }
 
-    private void saveOrUpdateProduct(String category, String name, BigDecimal basePrice, String description, String availability) {
-        // Try to find existing product by name
-        List<Products> existingProducts = repository.findAll().stream()
-                .filter(p -> p.getName().equals(name) && p.getCategory().equals(category))
-                .collect(Collectors.toList());
-        
-        Products product;
-        if (!existingProducts.isEmpty()) {
-            // Update existing product
-            product = existingProducts.get(0);
-            product.setCategory(category);
-            product.setName(name);
-            product.setBasePrice(basePrice);
-            product.setDescription(description);
-            product.setAvailability(availability);
-            System.out.println("Updated product: " + name);
-        } else {
-            // Create new product
-            product = new Products(category, name, basePrice, description, availability);
-            System.out.println("Created product: " + name);
+    /**
+     * Seeds the Products table from the catalog file (see CatalogSource).
+     */
+    public CatalogSyncResultDTO initializeTable() {
+        System.out.println("--- Starting Products table initialization/update ---");
+        CatalogSyncResultDTO result = syncCatalog(catalogSource.load());
+        System.out.println("--- Products table in sync with the catalog: " + result.created() + " created, "
+                + result.updated() + " updated, " + result.unchanged() + " unchanged ("
+                + result.elapsedMillis() + " ms) ---");
+        return result;
+    }
+
+    /**
+     * Brings the Products table in line with the catalog in one pass: a single findAll keyed on
+     * (category, name), then only the differences are written. New products are inserted together
+     * and changed ones are updated by dirty checking, so both go out as JDBC batches on commit.
+     * Products that are not in the catalog (e.g. added by an admin) are left alone.
+     */
+    public CatalogSyncResultDTO syncCatalog(List<ProductsWOIDDTO> catalog) {
+        long started = System.nanoTime();
+
+        // Internal writer: an admin edit landing at the same time is retried, not a startup failure
+        CatalogChanges changes = lockRetry.inTransaction("products.seed", () -> {
+            Map<CatalogKey, Products> existing = new HashMap<>();
+            for (Products product : repository.findAll()) {
+                existing.put(new CatalogKey(product.getCategory(), product.getName()), product);
+            }
+
+            List<Products> created = new ArrayList<>();
+            int updated = 0;
+            for (ProductsWOIDDTO entry : catalog) {
+                Products product = existing.get(new CatalogKey(entry.category(), entry.name()));
+                if (product == null) {
+                    created.add(new Products(entry.category(), entry.name(), entry.basePrice(), entry.description(), entry.availability()));
+                } else if (applyCatalogEntry(product, entry)) {
+                    updated++;
+                }
+            }
+
+            if (!created.isEmpty()) {
+                repository.saveAll(created);
+            }
+            return new CatalogChanges(created.size(), updated);
+        });
+
+        // Only publish a new menu snapshot if something actually changed
+        if (menuSnapshot == null || changes.created() > 0 || changes.updated() > 0) {
+            refreshMenuSnapshot();
         }
-        repository.save(product);
+
+        return new CatalogSyncResultDTO(
+                catalog.size(),
+                changes.created(),
+                changes.updated(),
+                catalog.size() - changes.created() - changes.updated(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis()
+        );
     }
 
-    public void initializeTable() {
-        System.out.println("--- Starting Products table initialization/update ---");
-        
-        // COFFEE
-        saveOrUpdateProduct("COFFEE", "Java House Espresso", new BigDecimal("3.00"),
-                "A rich, single-origin shot, perfectly pulled. Bold and balanced.", "IN_STOCK");
-        saveOrUpdateProduct("COFFEE", "Coffee Misto", new BigDecimal("4.00"),
-                "A soothing blend of filtered house coffee and steamed milk. Simple and comforting.", "IN_STOCK");
-        saveOrUpdateProduct("COFFEE", "Cappuccino", new BigDecimal("4.50"),
-                "Espresso with steamed milk and a layer of velvety foam. Perfectly balanced and creamy.", "IN_STOCK");
-        saveOrUpdateProduct("COFFEE", "Caramel Macchiato", new BigDecimal("5.25"),
-                "Espresso with vanilla-flavored syrup, steamed milk, and caramel drizzle. Sweet and indulgent.", "IN_STOCK");
-        saveOrUpdateProduct("COFFEE", "Mocha Frappuccino", new BigDecimal("6.50"),
-                "Iced blended coffee drink mixed with rich chocolate syrup, milk, and ice, topped with whipped cream.", "IN_STOCK");
-
-        // CUPCAKES
-        saveOrUpdateProduct("CUPCAKES", "Vanilla Bean Bliss", new BigDecimal("4.00"),
-                "Fluffy vanilla cake infused with real vanilla bean, finished with a sweet buttercream swirl.", "IN_STOCK");
-        saveOrUpdateProduct("CUPCAKES", "Red Velvet Dream", new BigDecimal("4.25"),
-                "Moist, ruby-red cake with a hint of cocoa, topped with classic cream cheese frosting.", "IN_STOCK");
-        saveOrUpdateProduct("CUPCAKES", "Triple Chocolate Overload", new BigDecimal("4.50"),
-                "Rich dark chocolate cake with chocolate chips, crowned with smooth chocolate ganache frosting.", "IN_STOCK");
-        saveOrUpdateProduct("CUPCAKES", "Lemon Zest Delight", new BigDecimal("4.00"),
-                "Bright and tangy lemon cake with zesty lemon frosting. Refreshing and delightful.", "IN_STOCK");
-        saveOrUpdateProduct("CUPCAKES", "Strawberry Shortcake", new BigDecimal("4.25"),
-                "Vanilla cake topped with fresh strawberries and whipped cream. Classic and sweet.", "IN_STOCK");
-
-        // COOKIES
-        saveOrUpdateProduct("COOKIES", "Signature Chocolate Chip", new BigDecimal("2.50"),
-                "A warm, gooey classic with melted milk and dark chocolate chips.", "IN_STOCK");
-        saveOrUpdateProduct("COOKIES", "Oatmeal Cranberry White Chocolate", new BigDecimal("2.75"),
-                "Soft, chewy oatmeal cookie loaded with dried cranberries and white chocolate chunks.", "IN_STOCK");
-        saveOrUpdateProduct("COOKIES", "Double Fudge Brownie Cookie", new BigDecimal("3.00"),
-                "Rich, fudgy cookie with double the chocolate. Dense and decadent.", "IN_STOCK");
-        saveOrUpdateProduct("COOKIES", "Snickerdoodle", new BigDecimal("2.50"),
-                "Soft and chewy cinnamon-sugar cookie with a buttery, melt-in-your-mouth texture.", "IN_STOCK");
-
-        // CROISSANTS
-        saveOrUpdateProduct("CROISSANTS", "Classic Butter Croissant", new BigDecimal("3.75"),
-                "Light, flaky, and golden-brown pastry layers, perfect served warm.", "IN_STOCK");
-        saveOrUpdateProduct("CROISSANTS", "Cinnamon Swirl Croissant", new BigDecimal("4.50"),
-                "Buttery croissant dough rolled with a sweet cinnamon sugar filling and finished with a light vanilla glaze.", "IN_STOCK");
-        saveOrUpdateProduct("CROISSANTS", "Chocolate Almond Croissant", new BigDecimal("4.75"),
-                "Buttery croissant filled with rich chocolate and topped with sliced almonds. Indulgent and satisfying.", "IN_STOCK");
-        saveOrUpdateProduct("CROISSANTS", "Plain Croissant", new BigDecimal("3.50"),
-                "Simple, buttery, and flaky croissant. A classic French pastry at its finest.", "IN_STOCK");
-        saveOrUpdateProduct("CROISSANTS", "Ham and Cheese Croissant", new BigDecimal("5.00"),
-                "Savory croissant filled with premium ham and melted cheese. Perfect for a hearty breakfast.", "IN_STOCK");
-
-        // PASTRIES
-        saveOrUpdateProduct("PASTRIES", "Cheese Danish", new BigDecimal("4.50"),
-                "Flaky pastry filled with sweet cream cheese. Buttery and rich.", "IN_STOCK");
-        saveOrUpdateProduct("PASTRIES", "Blueberry Muffin", new BigDecimal("3.50"),
-                "Moist muffin bursting with fresh blueberries. Topped with a sweet crumb topping.", "IN_STOCK");
-        saveOrUpdateProduct("PASTRIES", "Apple Turnover", new BigDecimal("4.25"),
-                "Flaky pastry filled with spiced apple filling. Warm and comforting.", "IN_STOCK");
-        saveOrUpdateProduct("PASTRIES", "Almond Croissant", new BigDecimal("4.75"),
-                "Buttery croissant filled with almond paste and topped with sliced almonds. Rich and nutty.", "IN_STOCK");
-        saveOrUpdateProduct("PASTRIES", "Chocolate Eclair", new BigDecimal("4.50"),
-                "Light choux pastry filled with vanilla cream and topped with rich chocolate glaze.", "IN_STOCK");
-
-        // SANDWICHES
-        saveOrUpdateProduct("SANDWICHES", "BLT Classic", new BigDecimal("7.50"),
-                "Crispy bacon, fresh lettuce, and ripe tomatoes on toasted bread. A timeless favorite.", "IN_STOCK");
-        saveOrUpdateProduct("SANDWICHES", "Caprese Sandwich", new BigDecimal("8.00"),
-                "Fresh mozzarella, ripe tomatoes, and basil with balsamic glaze on ciabatta. Light and fresh.", "IN_STOCK");
-        saveOrUpdateProduct("SANDWICHES", "Grilled Chicken Panini", new BigDecimal("8.50"),
-                "Tender grilled chicken with pesto, mozzarella, and sun-dried tomatoes on pressed ciabatta.", "IN_STOCK");
-        saveOrUpdateProduct("SANDWICHES", "Turkey Avocado Club", new BigDecimal("9.00"),
-                "Sliced turkey, crispy bacon, avocado, lettuce, and tomato on multigrain bread. Hearty and satisfying.", "IN_STOCK");
-        saveOrUpdateProduct("SANDWICHES", "Veggie Delight", new BigDecimal("7.00"),
-                "Fresh vegetables, hummus, and sprouts on whole grain bread. Healthy and delicious.", "IN_STOCK");
-
-        // SALADS
-        saveOrUpdateProduct("SALADS", "Caesar Salad", new BigDecimal("8.50"),
-                "Crisp romaine lettuce with parmesan cheese, croutons, and classic Caesar dressing.", "IN_STOCK");
-        saveOrUpdateProduct("SALADS", "Cobb Salad", new BigDecimal("9.50"),
-                "Mixed greens with grilled chicken, bacon, hard-boiled eggs, avocado, and blue cheese. A complete meal.", "IN_STOCK");
-        saveOrUpdateProduct("SALADS", "Garden Fresh Salad", new BigDecimal("7.50"),
-                "Mixed greens with seasonal vegetables, cherry tomatoes, and your choice of dressing. Fresh and crisp.", "IN_STOCK");
-        saveOrUpdateProduct("SALADS", "Grilled Chicken Salad", new BigDecimal("9.00"),
-                "Tender grilled chicken over mixed greens with vegetables and your choice of dressing.", "IN_STOCK");
-        saveOrUpdateProduct("SALADS", "Quinoa Power Bowl", new BigDecimal("9.75"),
-                "Protein-packed quinoa with roasted vegetables, chickpeas, and tahini dressing. Nutritious and filling.", "IN_STOCK");
-
-        // SMOOTHIES
-        saveOrUpdateProduct("SMOOTHIES", "Berry Blast Smoothie", new BigDecimal("5.50"),
-                "Mixed berries blended with yogurt and a touch of honey. Refreshing and antioxidant-rich.", "IN_STOCK");
-        saveOrUpdateProduct("SMOOTHIES", "Chocolate Banana Smoothie", new BigDecimal("5.75"),
-                "Rich chocolate blended with ripe bananas and milk. Creamy and indulgent.", "IN_STOCK");
-        saveOrUpdateProduct("SMOOTHIES", "Green Power Smoothie", new BigDecimal("6.00"),
-                "Spinach, kale, pineapple, and banana blended for a nutritious energy boost.", "IN_STOCK");
-        saveOrUpdateProduct("SMOOTHIES", "Peach Mango Smoothie", new BigDecimal("5.75"),
-                "Tropical peaches and mangoes blended with yogurt. Sweet and refreshing.", "IN_STOCK");
-        saveOrUpdateProduct("SMOOTHIES", "Tropical Paradise Smoothie", new BigDecimal("6.25"),
-                "Pineapple, mango, coconut, and banana blended for a taste of the tropics.", "IN_STOCK");
-
-        System.out.println("--- Products table successfully initialized/updated with all menu items. ---");
+    // Copies the catalog values onto a managed product; returns false (and writes nothing) if they already match
+    private boolean applyCatalogEntry(Products product, ProductsWOIDDTO entry) {
+        boolean changed = false;
+
+        if (product.getBasePrice() == null || product.getBasePrice().compareTo(entry.basePrice()) != 0) {
+            product.setBasePrice(entry.basePrice());
+            changed = true;
+        }
+
+        if (!Objects.equals(product.getDescription(), entry.description())) {
+            product.setDescription(entry.description());
+            changed = true;
+        }
+
+        if (!Objects.equals(product.getAvailability(), entry.availability())) {
+            product.setAvailability(entry.availability());
+            changed = true;
+        }
+
+        return changed;
     }
 }
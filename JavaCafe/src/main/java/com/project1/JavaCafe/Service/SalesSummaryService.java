@@ -0,0 +1,71 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.SalesAggregationDTO;
+import com.project1.JavaCafe.DTO.SalesSummaryDTO;
+import com.project1.JavaCafe.Model.SalesSummary;
+import com.project1.JavaCafe.Repository.SalesSummaryRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the per-day SalesSummaries table.
+ * Callers run inside the order's transaction, so the summary and the order commit (or roll back) together.
+ */
+@Service
+public class SalesSummaryService {
+    // Fields
+    private final SalesSummaryRepository repository;
+
+    // Constructor
+    public SalesSummaryService(SalesSummaryRepository repository) {
+        this.repository = repository;
+    }
+
+    // Methods
+    public void recordOrder(LocalDate orderDate, int itemsSold) {
+        addToDay(orderDate, 1, itemsSold);
+    }
+
+    // An order's date was edited: take it off the old day and add it to the new one
+    public void moveOrder(LocalDate fromDate, LocalDate toDate, int itemsSold) {
+        if (fromDate.equals(toDate)) {
+            return;
+        }
+        addToDay(fromDate, -1, -itemsSold);
+        addToDay(toDate, 1, itemsSold);
+    }
+
+    public SalesAggregationDTO getAllTimeAggregates() {
+        return repository.calculateAllTimeAggregates();
+    }
+
+    public SalesAggregationDTO getAggregates(LocalDate from, LocalDate to) {
+        return repository.calculateAggregatesBetween(from, to);
+    }
+
+    public List<SalesSummaryDTO> getDailySummaries(LocalDate from, LocalDate to) {
+        return repository.findBySalesDateBetweenOrderBySalesDate(from, to).stream()
+                .map(this::summaryToDto)
+                .toList();
+    }
+
+    private void addToDay(LocalDate date, int orders, int items) {
+        if (repository.addToDay(date, orders, items) == 0) {
+            // First order of the day: create the empty row (or find another order's), then apply the same atomic increment.
+            // Stays in the caller's transaction, so it never needs a second pooled connection.
+            repository.insertDayIfAbsent(date);
+            repository.addToDay(date, orders, items);
+        }
+    }
+
+    private SalesSummaryDTO summaryToDto(SalesSummary summary) {
+        return new SalesSummaryDTO(
+                summary.getSummaryId(),
+                summary.getSalesDate().atStartOfDay(),
+                summary.getTotalOrders(),
+                summary.getTotalItemsSold()
+        );
+    }
+}
@@ -0,0 +1,123 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.StartupTaskDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the startup seeding tasks (catalog, built-in accounts) concurrently in the background,
+ * so startup doesn't wait for them one after another.
+ * <p>
+ * Doubles as the "startupSeeding" health indicator, which is part of the readiness group
+ * (/actuator/health/readiness): the node reports not ready until every task has finished,
+ * and stays not ready if one of them failed.
+ */
+@Service
+public class StartupSeeding implements HealthIndicator {
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    // One independent piece of startup work
+    public record Task(String name, Runnable work) {}
+
+    // Fields
+    private final ApplicationEventPublisher events;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("startup-seed-", 0).factory());
+    // Latest state of each task by name; written by the task threads
+    private final Map<String, StartupTaskDTO> tasks = new ConcurrentHashMap<>();
+    private volatile List<String> taskNames = List.of();
+    private volatile CompletableFuture<Void> completion;
+
+    // Constructor
+    public StartupSeeding(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    // Methods
+
+    /**
+     * Starts all tasks at once and returns immediately.
+     * Completes with an exception if any task failed.
+     */
+    public synchronized CompletableFuture<Void> start(List<Task> seedTasks) {
+        if (completion != null) {
+            throw new IllegalStateException("Startup seeding has already been started");
+        }
+
+        long started = System.nanoTime();
+        taskNames = seedTasks.stream().map(Task::name).toList();
+        for (Task task : seedTasks) {
+            tasks.put(task.name(), new StartupTaskDTO(task.name(), PENDING, 0, null));
+        }
+
+        CompletableFuture<?>[] runs = seedTasks.stream()
+                .map(task -> CompletableFuture.runAsync(() -> run(task), executor))
+                .toArray(CompletableFuture[]::new);
+
+        completion = CompletableFuture.allOf(runs).whenComplete((ignored, failure) -> {
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+            if (failure != null) {
+                System.out.println("--- Startup seeding failed after " + elapsedMillis + " ms, staying not ready ---");
+                return;
+            }
+            System.out.println("--- Startup seeding finished in " + elapsedMillis + " ms ---");
+            events.publishEvent(new StartupSeedingCompletedEvent(stats(), elapsedMillis));
+        });
+        return completion;
+    }
+
+    private void run(Task task) {
+        long started = System.nanoTime();
+        tasks.put(task.name(), new StartupTaskDTO(task.name(), RUNNING, 0, null));
+        try {
+            task.work().run();
+        } catch (RuntimeException e) {
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+            tasks.put(task.name(), new StartupTaskDTO(task.name(), FAILED, elapsedMillis, e.toString()));
+            System.out.println("--- Startup task " + task.name() + " failed after " + elapsedMillis + " ms: " + e + " ---");
+            throw e;
+        }
+
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        tasks.put(task.name(), new StartupTaskDTO(task.name(), DONE, elapsedMillis, null));
+        System.out.println("--- Startup task " + task.name() + " done in " + elapsedMillis + " ms ---");
+    }
+
+    public boolean isReady() {
+        CompletableFuture<Void> current = completion;
+        return current != null && current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    // Status and duration of each task, in the order they were submitted
+    public List<StartupTaskDTO> stats() {
+        return taskNames.stream().map(tasks::get).toList();
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = isReady() ? Health.up() : Health.down();
+        for (StartupTaskDTO task : stats()) {
+            health.withDetail(task.name(), task.status() + " (" + task.elapsedMillis() + " ms)");
+        }
+        return health.build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
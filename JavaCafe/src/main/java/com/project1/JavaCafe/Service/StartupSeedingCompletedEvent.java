@@ -0,0 +1,10 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.StartupTaskDTO;
+
+import java.util.List;
+
+/**
+ * Published once every startup seeding task has finished successfully.
+ */
+public record StartupSeedingCompletedEvent(List<StartupTaskDTO> tasks, long elapsedMillis) {}
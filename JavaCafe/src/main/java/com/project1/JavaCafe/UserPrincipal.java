@@ -0,0 +1,18 @@
+package com.project1.JavaCafe;
+
+import java.time.Instant;
+
+/**
+ * Identity of the caller, read once from a verified JWT.
+ * Immutable so it can be cached and shared between requests safely.
+ */
+public record UserPrincipal(
+        Long userId,
+        String email,
+        String userRole,
+        Instant expiresAt
+) {
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,32 @@
+package com.project1.JavaCafe;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Lets controller methods declare a {@link UserPrincipal} parameter.
+ * The value is the identity the interceptor already pulled from the token,
+ * so controllers never need a database lookup to know who is calling.
+ * Resolves to null when the request was not authenticated.
+ */
+@Component
+public class UserPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+    // Request attribute the interceptors store the principal under
+    public static final String PRINCIPAL_ATTRIBUTE = "principal";
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return UserPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return webRequest.getAttribute(PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
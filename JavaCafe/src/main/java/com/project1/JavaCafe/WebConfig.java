@@ -1,24 +1,43 @@
 package com.project1.JavaCafe;
 
+import com.project1.JavaCafe.Service.MenuRepresentationCache;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     // Fields
     private final JwtInterceptor jwtInterceptor;
+    private final BasicAuthInterceptor basicAuthInterceptor;
+    private final UserPrincipalArgumentResolver principalResolver;
 
     // Constructor
-    public WebConfig(JwtInterceptor jwti) {
+    public WebConfig(JwtInterceptor jwti, BasicAuthInterceptor basicAuthInterceptor, UserPrincipalArgumentResolver principalResolver) {
         this.jwtInterceptor = jwti;
+        this.basicAuthInterceptor = basicAuthInterceptor;
+        this.principalResolver = principalResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        // Lets controllers take the caller's UserPrincipal as a method parameter
+        resolvers.add(principalResolver);
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry reg) {
         // adding interceptors to the list of active/running interceptors
         // that are scanning requests as they come in
+
+        // Admin APIs also accept Basic auth (scripts); runs first and passes Bearer requests on
+        reg.addInterceptor(basicAuthInterceptor)
+                .addPathPatterns("/api/admin/**");
+
         reg.addInterceptor(jwtInterceptor) 
                 .addPathPatterns("/api/**") // Apply to all /api/ paths
                 
@@ -31,7 +50,9 @@ public class WebConfig implements WebMvcConfigurer {
                         "/api/contact",
                         "/api/contact/**",
                         "/api/cart",
-                        "/api/cart/guest/submit"
+                        "/api/cart/guest/submit",
+                        "/api/cart/guest/*", // guest order lookup: order number + checkout email
+                        "/api/cart/guest/*/stream"
                 );
     }
 
@@ -39,8 +60,9 @@ public class WebConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Apply CORS rules to all paths starting with /api
                 .allowedOrigins("http://localhost:3000") // <-- **CRITICAL LINE**
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allow all necessary HTTP methods
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS") // Allow all necessary HTTP methods
                 .allowedHeaders("*") // Allow all request headers
+                .exposedHeaders(MenuRepresentationCache.MENU_VERSION_HEADER, "ETag") // Let the frontend read the menu version
                 .allowCredentials(true);
     }
 }
@@ -0,0 +1,35 @@
+package db.migration;
+
+import com.project1.JavaCafe.Model.PooledSequenceGenerator;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Moves product IDs from the IDENTITY column onto a pooled sequence (like every other table),
+ * so bulk catalog seeding can batch its INSERTs.
+ * Written in Java because the sequence has to start past the products that already exist,
+ * which plain SQL can't express portably (Postgres and the H2 test database).
+ */
+public class V3__Products_sequence extends BaseJavaMigration {
+    // The sequences in V1 use the same increment
+    private static final long INCREMENT = PooledSequenceGenerator.ALLOCATION_SIZE;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("select coalesce(max(product_id), 0) from products")) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+
+            // The pooled optimizer hands out the block ending at the value it reads,
+            // so the first value must be a whole block past the highest existing ID
+            long start = maxId == 0 ? 1 : maxId + INCREMENT;
+            statement.execute("create sequence if not exists products_seq start with " + start + " increment by " + INCREMENT);
+        }
+    }
+}
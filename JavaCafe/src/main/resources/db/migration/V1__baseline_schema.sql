@@ -0,0 +1,90 @@
+-- Baseline: the schema Hibernate used to build on every boot (ddl-auto=create).
+-- IF NOT EXISTS lets this adopt a database that was created that way (see spring.flyway.baseline-on-migrate).
+
+-- Pooled ID sequences: increment must match PooledSequenceGenerator.ALLOCATION_SIZE
+create sequence if not exists app_users_seq start with 1 increment by 50;
+create sequence if not exists contact_submissions_seq start with 1 increment by 50;
+create sequence if not exists customer_orders_seq start with 1 increment by 50;
+create sequence if not exists order_items_seq start with 1 increment by 50;
+create sequence if not exists sales_summaries_seq start with 1 increment by 50;
+
+create table if not exists app_users (
+    user_id bigint not null,
+    email varchar(255) not null unique,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255),
+    user_role varchar(255) not null,
+    primary key (user_id)
+);
+
+create table if not exists contact_submissions (
+    submissionid bigint not null,
+    submitted_at timestamp(6) not null,
+    email varchar(255) not null,
+    firstname varchar(255) not null,
+    lastname varchar(255) not null,
+    message varchar(255) not null,
+    phone varchar(255) not null,
+    subject varchar(255) not null,
+    primary key (submissionid)
+);
+
+create table if not exists products (
+    product_id bigint generated by default as identity,
+    category varchar(255) not null,
+    name varchar(255) not null,
+    base_price numeric(38,2) not null,
+    description varchar(255) not null,
+    availability varchar(255) not null,
+    version bigint,
+    primary key (product_id),
+    unique (name, description)
+);
+
+create table if not exists customer_orders (
+    order_id integer not null,
+    user_id bigint not null,
+    total_cost numeric(38,2) not null,
+    order_date date not null,
+    status varchar(255) not null,
+    version bigint,
+    primary key (order_id),
+    constraint fk_customer_orders_user foreign key (user_id) references app_users
+);
+
+create table if not exists order_items (
+    item_id integer not null,
+    order_id integer not null,
+    product_id bigint not null,
+    quantity integer not null,
+    unit_price numeric(38,2) not null,
+    product_name varchar(255) not null,
+    product_category varchar(255) not null,
+    primary key (item_id),
+    constraint fk_order_items_order foreign key (order_id) references customer_orders,
+    constraint fk_order_items_product foreign key (product_id) references products
+);
+
+create table if not exists sales_summaries (
+    summary_id bigint not null,
+    sales_date date not null,
+    total_orders integer not null,
+    total_items_sold integer not null,
+    primary key (summary_id),
+    unique (sales_date)
+);
+
+create table if not exists idempotency_keys (
+    idempotency_key varchar(400) not null,
+    order_id integer not null,
+    user_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (idempotency_key)
+);
+
+-- Order board: WHERE status IN (...) AND order_id > ? ORDER BY order_id
+create index if not exists idx_customer_orders_status_order_id on customer_orders (status, order_id);
+-- Order history: WHERE user_id = ? AND (order_date, order_id) < (?, ?) ORDER BY order_date DESC, order_id DESC.
+-- Also serves the owner check in findByOrderIdAndUser_UserId and the user_id foreign key.
+create index if not exists idx_customer_orders_user_date_order_id on customer_orders (user_id, order_date, order_id);
@@ -0,0 +1,11 @@
+-- Indexes for lookups that had none (PostgreSQL does not index foreign keys on its own).
+-- app_users.email is already covered by its unique constraint (findByEmail).
+
+-- Order detail and item counts: order_items by order_id
+create index if not exists idx_order_items_order_id on order_items (order_id);
+
+-- Menu filter: findByCategory
+create index if not exists idx_products_category on products (category);
+
+-- Expired Idempotency-Key purge: DELETE ... WHERE created_at < ?
+create index if not exists idx_idempotency_keys_created_at on idempotency_keys (created_at);
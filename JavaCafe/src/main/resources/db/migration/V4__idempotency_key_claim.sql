@@ -0,0 +1,4 @@
+-- An Idempotency-Key row is now claimed (INSERT ... ON CONFLICT DO NOTHING) before its order exists,
+-- then filled in with the order in the same transaction. The order columns are empty only until then.
+alter table idempotency_keys alter column order_id drop not null;
+alter table idempotency_keys alter column user_id drop not null;
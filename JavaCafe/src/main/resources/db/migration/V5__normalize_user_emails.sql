@@ -0,0 +1,7 @@
+-- Emails are now stored trimmed and lower-cased, and looked up the same way.
+-- Normalize existing rows, skipping any whose normalized email another row already has or would get
+-- (e.g. a registered "Jane@X.com" plus a guest "jane@x.com"); those pairs need merging by hand.
+update app_users
+set email = lower(trim(email))
+where email <> lower(trim(email))
+  and (select count(*) from app_users other where lower(trim(other.email)) = lower(trim(app_users.email))) = 1;
@@ -0,0 +1,14 @@
+-- The summary table only counts orders placed through the app since it was added.
+-- Rebuild it from the orders already in the database, so all-time totals include them
+-- (one row per order date, same counting as SalesSummaryService.recordOrder).
+delete from sales_summaries;
+
+insert into sales_summaries (summary_id, sales_date, total_orders, total_items_sold)
+select nextval('sales_summaries_seq'), o.order_date, count(*), coalesce(sum(i.items), 0)
+from customer_orders o
+left join (
+    select order_id, sum(quantity) as items
+    from order_items
+    group by order_id
+) i on i.order_id = o.order_id
+group by o.order_date;
@@ -0,0 +1,3 @@
+-- Random per-order secret returned to a guest at checkout; the guest lookup and stream require it.
+-- Guest orders placed before this have none and can only be followed by staff.
+alter table customer_orders add column guest_token varchar(64);
@@ -0,0 +1,66 @@
+package com.project1.JavaCafe;
+
+import com.project1.JavaCafe.Model.AppUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppUserChangeListenerTest {
+
+    private BasicAuthCredentialCache cache;
+    private AppUserChangeListener listener;
+    private AppUser user;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BasicAuthCredentialCache(60, 100);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("credentialCache", cache);
+        listener = new AppUserChangeListener(beans.getBeanProvider(BasicAuthCredentialCache.class));
+
+        user = new AppUser("admin@cafe.com", "hash", "ADMIN", "Ada", "Admin");
+        user.setUserId(1L);
+        principal = new UserPrincipal(1L, "admin@cafe.com", "ADMIN", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onUserChanged_noTransaction_invalidatesImmediately() {
+        // Arrange
+        cache.store("admin@cafe.com", "old", principal);
+
+        // Act
+        listener.onUserChanged(user);
+
+        // Assert
+        assertTrue(cache.lookup("admin@cafe.com", "old").isEmpty());
+    }
+
+    @Test
+    void onUserChanged_inTransaction_invalidatesAgainAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        cache.store("admin@cafe.com", "old", principal);
+
+        // Act: flush-time callback, then another request re-caches the old password before the commit
+        listener.onUserChanged(user);
+        assertTrue(cache.lookup("admin@cafe.com", "old").isEmpty());
+        cache.store("admin@cafe.com", "old", principal);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertTrue(cache.lookup("admin@cafe.com", "old").isEmpty(), "The stale entry must not survive the commit");
+    }
+}
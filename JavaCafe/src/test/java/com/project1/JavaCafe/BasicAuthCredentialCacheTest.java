@@ -0,0 +1,86 @@
+package com.project1.JavaCafe;
+
+import com.project1.JavaCafe.DTO.CacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasicAuthCredentialCacheTest {
+
+    private BasicAuthCredentialCache cache;
+    private UserPrincipal admin;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BasicAuthCredentialCache(60, 100);
+        admin = new UserPrincipal(1L, "admin@cafe.com", "ADMIN", null);
+    }
+
+    @Test
+    void lookup_afterStore_hitsWithSameCredentials() {
+        // Arrange
+        cache.store("admin@cafe.com", "secret", admin);
+
+        // Act & Assert
+        assertEquals(admin, cache.lookup("admin@cafe.com", "secret").orElseThrow());
+        assertTrue(cache.lookup("admin@cafe.com", "wrong").isEmpty(), "A different password must never hit");
+
+        CacheStatsDTO stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void lookup_afterInvalidateUser_misses() {
+        // Arrange
+        cache.store("admin@cafe.com", "secret", admin);
+
+        // Act: e.g. the admin's password or role changed
+        cache.invalidateUser(1L);
+
+        // Assert
+        assertTrue(cache.lookup("admin@cafe.com", "secret").isEmpty());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void lookup_expiredEntry_misses() {
+        // Arrange: zero TTL means every entry is already expired
+        BasicAuthCredentialCache noTtl = new BasicAuthCredentialCache(0, 100);
+        noTtl.store("admin@cafe.com", "secret", admin);
+
+        // Act & Assert
+        assertTrue(noTtl.lookup("admin@cafe.com", "secret").isEmpty());
+    }
+
+    @Test
+    void store_full_staysBounded() {
+        // Arrange
+        BasicAuthCredentialCache small = new BasicAuthCredentialCache(60, 2);
+
+        // Act
+        for (long i = 0; i < 5; i++) {
+            small.store("user" + i + "@cafe.com", "pw", new UserPrincipal(i, "user" + i + "@cafe.com", "CUSTOMER", null));
+        }
+
+        // Assert
+        assertTrue(small.stats().size() <= 2, "Cache should never grow past max entries");
+    }
+
+    @Test
+    void store_full_evictsOldestOnly() {
+        // Arrange
+        BasicAuthCredentialCache small = new BasicAuthCredentialCache(60, 2);
+        small.store("a@cafe.com", "pw", new UserPrincipal(1L, "a@cafe.com", "CUSTOMER", null));
+        small.store("b@cafe.com", "pw", new UserPrincipal(2L, "b@cafe.com", "CUSTOMER", null));
+
+        // Act
+        small.store("c@cafe.com", "pw", new UserPrincipal(3L, "c@cafe.com", "CUSTOMER", null));
+
+        // Assert: the two newest survive, instead of the whole cache being dropped
+        assertTrue(small.lookup("a@cafe.com", "pw").isEmpty());
+        assertTrue(small.lookup("b@cafe.com", "pw").isPresent());
+        assertTrue(small.lookup("c@cafe.com", "pw").isPresent());
+    }
+}
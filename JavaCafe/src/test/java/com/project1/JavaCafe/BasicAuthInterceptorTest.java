@@ -0,0 +1,115 @@
+package com.project1.JavaCafe;
+
+import com.project1.JavaCafe.Model.AppUser;
+import com.project1.JavaCafe.Repository.AppUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BasicAuthInterceptorTest {
+
+    @Mock
+    private AppUserRepository repository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private BasicAuthCredentialCache cache;
+    private BasicAuthInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BasicAuthCredentialCache(60, 100);
+        interceptor = new BasicAuthInterceptor(repository, passwordEncoder, cache);
+    }
+
+    @Test
+    void preHandle_bearerToken_passesThroughToJwt() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("Bearer abc");
+
+        // Act & Assert
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        assertNull(request.getAttribute(UserPrincipalArgumentResolver.PRINCIPAL_ATTRIBUTE));
+        verifyNoInteractions(repository, passwordEncoder);
+    }
+
+    @Test
+    void preHandle_adminTwice_verifiesPasswordOnce() throws Exception {
+        // Arrange
+        AppUser admin = new AppUser("admin@cafe.com", "hash", "ADMIN", "Ada", "Admin");
+        admin.setUserId(1L);
+        when(repository.findByEmail("admin@cafe.com")).thenReturn(Optional.of(admin));
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+
+        // Act
+        MockHttpServletRequest first = request(basic("admin@cafe.com:secret"));
+        MockHttpServletRequest second = request(basic("admin@cafe.com:secret"));
+        boolean firstAllowed = interceptor.preHandle(first, new MockHttpServletResponse(), null);
+        boolean secondAllowed = interceptor.preHandle(second, new MockHttpServletResponse(), null);
+
+        // Assert: the repeat call is answered from the cache
+        assertTrue(firstAllowed);
+        assertTrue(secondAllowed);
+        assertNotNull(second.getAttribute(UserPrincipalArgumentResolver.PRINCIPAL_ATTRIBUTE));
+        verify(passwordEncoder, times(1)).matches("secret", "hash");
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void preHandle_customerOnAdminPath_forbidden() throws Exception {
+        // Arrange
+        AppUser customer = new AppUser("test.user@cafe.com", "hash", "CUSTOMER", "Test", "User");
+        customer.setUserId(2L);
+        when(repository.findByEmail("test.user@cafe.com")).thenReturn(Optional.of(customer));
+        when(passwordEncoder.matches("pw", "hash")).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean allowed = interceptor.preHandle(request(basic("test.user@cafe.com:pw")), response, null);
+
+        // Assert
+        assertFalse(allowed);
+        assertEquals(403, response.getStatus());
+    }
+
+    @Test
+    void preHandle_wrongPassword_unauthorized() throws Exception {
+        // Arrange
+        AppUser admin = new AppUser("admin@cafe.com", "hash", "ADMIN", "Ada", "Admin");
+        when(repository.findByEmail("admin@cafe.com")).thenReturn(Optional.of(admin));
+        when(passwordEncoder.matches("wrong", "hash")).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean allowed = interceptor.preHandle(request(basic("admin@cafe.com:wrong")), response, null);
+
+        // Assert
+        assertFalse(allowed);
+        assertEquals(401, response.getStatus());
+        assertEquals(0, cache.stats().size());
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/orders");
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package com.project1.JavaCafe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "QzXgN8yJpY4rL2sF5vW0hT1bA7eC9uD3kH6mZpXqYwS0jL9kVyN8tR7eF6dG5hA9";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 2);
+    }
+
+    @Test
+    void verify_validToken_returnsAllClaimsInOnePrincipal() {
+        // Arrange
+        String token = jwtUtil.generateToken(7L, "test@example.com", "CUSTOMER");
+
+        // Act
+        Optional<UserPrincipal> principal = jwtUtil.verify(token);
+
+        // Assert
+        assertTrue(principal.isPresent(), "A freshly issued token should verify");
+        assertEquals(7L, principal.get().userId());
+        assertEquals("test@example.com", principal.get().email());
+        assertEquals("CUSTOMER", principal.get().userRole());
+        assertNotNull(principal.get().expiresAt(), "Expiry should be carried so the cache can honour it");
+    }
+
+    @Test
+    void verify_sameTokenTwice_returnsCachedPrincipal() {
+        // Arrange
+        String token = jwtUtil.generateToken(7L, "test@example.com", "CUSTOMER");
+
+        // Act
+        UserPrincipal first = jwtUtil.verify(token).orElseThrow();
+        UserPrincipal second = jwtUtil.verify(token).orElseThrow();
+
+        // Assert: the second call is answered from the cache, not re-parsed
+        assertSame(first, second, "Repeat verification should reuse the cached principal");
+    }
+
+    @Test
+    void verify_tamperedToken_returnsEmpty() {
+        // Arrange
+        String token = jwtUtil.generateToken(7L, "test@example.com", "CUSTOMER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act & Assert
+        assertTrue(jwtUtil.verify(tampered).isEmpty(), "A token with a broken signature must not verify");
+    }
+
+    @Test
+    void verify_tokenFromOtherKey_returnsEmpty() {
+        // Arrange
+        JwtUtil otherIssuer = new JwtUtil(SECRET.replace('Q', 'Z'), 2);
+        String foreignToken = otherIssuer.generateToken(7L, "test@example.com", "ADMIN");
+
+        // Act & Assert
+        assertTrue(jwtUtil.verify(foreignToken).isEmpty(), "Tokens signed with another key must not verify");
+    }
+
+    @Test
+    void verify_moreTokensThanCacheSize_stillVerifiesEveryToken() {
+        // Arrange: cache holds 2 entries
+        String first = jwtUtil.generateToken(1L, "one@example.com", "CUSTOMER");
+        String second = jwtUtil.generateToken(2L, "two@example.com", "CUSTOMER");
+        String third = jwtUtil.generateToken(3L, "three@example.com", "ADMIN");
+
+        // Act & Assert: eviction never turns a valid token into a failure
+        assertEquals(1L, jwtUtil.verify(first).orElseThrow().userId());
+        assertEquals(2L, jwtUtil.verify(second).orElseThrow().userId());
+        assertEquals(3L, jwtUtil.verify(third).orElseThrow().userId());
+        assertEquals(1L, jwtUtil.verify(first).orElseThrow().userId());
+    }
+
+    @Test
+    void verify_cacheFull_evictsOldestToken() {
+        // Arrange: cache holds 2 entries
+        String first = jwtUtil.generateToken(1L, "one@example.com", "CUSTOMER");
+        String second = jwtUtil.generateToken(2L, "two@example.com", "CUSTOMER");
+        String third = jwtUtil.generateToken(3L, "three@example.com", "ADMIN");
+        UserPrincipal firstPrincipal = jwtUtil.verify(first).orElseThrow();
+        UserPrincipal secondPrincipal = jwtUtil.verify(second).orElseThrow();
+
+        // Act
+        jwtUtil.verify(third);
+
+        // Assert: only the oldest was pushed out; the newer one is still served from the cache
+        assertSame(secondPrincipal, jwtUtil.verify(second).orElseThrow());
+        assertNotSame(firstPrincipal, jwtUtil.verify(first).orElseThrow());
+    }
+}
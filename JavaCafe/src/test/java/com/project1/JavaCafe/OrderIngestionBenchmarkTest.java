@@ -0,0 +1,121 @@
+package com.project1.JavaCafe;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersWOIDDTO;
+import com.project1.JavaCafe.DTO.OrderIngestionStatsDTO;
+import com.project1.JavaCafe.DTO.OrderItemsWOIDDTO;
+import com.project1.JavaCafe.Repository.AppUserRepository;
+import com.project1.JavaCafe.Repository.CustomerOrdersRepository;
+import com.project1.JavaCafe.Service.CustomerOrdersService;
+import com.project1.JavaCafe.Service.OrderIngestionQueue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-request commits vs. group commit for order creation, against the configured database.
+ * Skipped by default; run with:
+ *   mvn test -Dtest=OrderIngestionBenchmarkTest -Dbenchmark=true
+ * (add -Dbenchmark.callers / -Dbenchmark.orders-per-caller to change the load)
+ * Results depend on fsync cost, so compare on Postgres (set spring.datasource.url), not H2.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderIngestionBenchmarkTest {
+
+    private static final int CALLERS = Integer.getInteger("benchmark.callers", 32);
+    private static final int ORDERS_PER_CALLER = Integer.getInteger("benchmark.orders-per-caller", 200);
+
+    @Autowired
+    private CustomerOrdersService orderService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private CustomerOrdersRepository orderRepository;
+
+    @Test
+    void perRequestCommit_vs_groupCommit() throws Exception {
+        Long userId = userRepository.findByEmail("test.user@cafe.com").orElseThrow().getUserId();
+        CustomerOrdersWOIDDTO order = new CustomerOrdersWOIDDTO(
+                "test.user@cafe.com", userId, BigDecimal.ZERO, LocalDate.now(), "PENDING",
+                List.of(new OrderItemsWOIDDTO(null, 1L, 2, null, null), new OrderItemsWOIDDTO(null, 2L, 1, null, null))
+        );
+
+        // Warm up both paths (JIT, connection pool, sequence blocks)
+        run(new OrderIngestionQueue(transactionManager, false, 32, 5, 1000, 60), order, userId, 20);
+        run(new OrderIngestionQueue(transactionManager, true, 32, 5, 1000, 60), order, userId, 20);
+
+        long before = orderRepository.count();
+        Result perRequest = run(new OrderIngestionQueue(transactionManager, false, 32, 5, 1000, 60), order, userId, ORDERS_PER_CALLER);
+        OrderIngestionQueue grouped = new OrderIngestionQueue(transactionManager, true, 32, 5, 1000, 60);
+        Result groupCommit = run(grouped, order, userId, ORDERS_PER_CALLER);
+        OrderIngestionStatsDTO stats = grouped.stats();
+
+        System.out.printf("%n%d callers x %d orders%n", CALLERS, ORDERS_PER_CALLER);
+        System.out.printf("per-request commit: %8.0f orders/s  p50 %6.2f ms  p99 %6.2f ms%n",
+                perRequest.throughput(), perRequest.p50Millis(), perRequest.p99Millis());
+        System.out.printf("group commit:       %8.0f orders/s  p50 %6.2f ms  p99 %6.2f ms  (avg batch %.1f, max %d)%n",
+                groupCommit.throughput(), groupCommit.p50Millis(), groupCommit.p99Millis(),
+                stats.avgBatchSize(), stats.maxBatchSize());
+
+        assertEquals(before + 2L * CALLERS * ORDERS_PER_CALLER, orderRepository.count(), "Every order should be committed");
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis) {}
+
+    private Result run(OrderIngestionQueue queue, CustomerOrdersWOIDDTO order, Long userId, int ordersPerCaller) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int c = 0; c < CALLERS; c++) {
+                futures.add(callers.submit(() -> {
+                    long[] latencies = new long[ordersPerCaller];
+                    for (int i = 0; i < ordersPerCaller; i++) {
+                        long t0 = System.nanoTime();
+                        queue.submit(() -> orderService.create(order, userId));
+                        latencies[i] = System.nanoTime() - t0;
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[CALLERS * ordersPerCaller];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get(5, TimeUnit.MINUTES);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(all);
+            return new Result(
+                    all.length / seconds,
+                    all[(int) (all.length * 0.50)] / 1e6,
+                    all[(int) Math.min(all.length - 1, all.length * 0.99)] / 1e6
+            );
+        } finally {
+            callers.shutdownNow();
+            queue.shutdown();
+        }
+    }
+}
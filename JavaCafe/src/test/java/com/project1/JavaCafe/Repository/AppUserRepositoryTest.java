@@ -0,0 +1,60 @@
+package com.project1.JavaCafe.Repository;
+
+import com.project1.JavaCafe.Model.AppUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class AppUserRepositoryTest {
+
+    // The startup seeder needs the service layer, which a JPA slice doesn't load
+    @MockitoBean(name = "seedData")
+    private CommandLineRunner seedData;
+
+    @Autowired
+    private AppUserRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void findByEmail_anySpelling_findsTheAccount() {
+        // Arrange: registered as typed
+        entityManager.persistAndFlush(new AppUser("Jane@X.com", "hash", "CUSTOMER", "Jane", "Doe"));
+        entityManager.clear();
+
+        // Act
+        Optional<AppUser> found = repository.findByEmail(" JANE@x.COM ");
+
+        // Assert
+        assertTrue(found.isPresent());
+        assertEquals("jane@x.com", found.get().getEmail());
+        assertEquals("CUSTOMER", found.get().getUserRole());
+    }
+
+    @Test
+    void save_changedEmail_isStoredNormalized() {
+        // Arrange
+        AppUser user = repository.saveAndFlush(new AppUser("jane@x.com", "hash", "CUSTOMER", "Jane", "Doe"));
+
+        // Act: the setter takes the address as typed
+        user.setEmail(" Jane.Doe@X.com");
+        repository.saveAndFlush(user);
+        entityManager.clear();
+
+        // Assert
+        assertEquals("jane.doe@x.com", repository.findById(user.getUserId()).orElseThrow().getEmail());
+        assertTrue(repository.findByEmail("JANE.DOE@X.COM").isPresent());
+    }
+}
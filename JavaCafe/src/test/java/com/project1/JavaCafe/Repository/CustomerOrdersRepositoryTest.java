@@ -0,0 +1,245 @@
+package com.project1.JavaCafe.Repository;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO;
+import com.project1.JavaCafe.Model.AppUser;
+import com.project1.JavaCafe.Model.CustomerOrders;
+import com.project1.JavaCafe.Model.OrderItems;
+import com.project1.JavaCafe.Model.Products;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class CustomerOrdersRepositoryTest {
+
+    // The startup seeder needs the service layer, which a JPA slice doesn't load
+    @MockitoBean(name = "seedData")
+    private CommandLineRunner seedData;
+
+    @Autowired
+    private CustomerOrdersRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private AppUser testUser;
+    private Products testProduct;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        testUser = entityManager.persist(new AppUser("repo@example.com", null, "CUSTOMER", "Repo", "Test"));
+        testProduct = entityManager.persist(new Products("COFFEE", "Espresso", new BigDecimal("3.00"), "Test description", "IN_STOCK"));
+        entityManager.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void save_orderWithManyItems_usesConstantNumberOfStatements() {
+        // Act: write a 1-item order and a 40-item order, counting JDBC statements for each
+        long smallOrderStatements = statementsToSave(1);
+        long largeOrderStatements = statementsToSave(40);
+
+        // Assert: 
+        // with pooled sequence IDs and batching, an order costs one INSERT for the order,
+        // one batched INSERT for all of its items and at most one sequence call per table
+        assertTrue(smallOrderStatements <= 4, "1-item order used " + smallOrderStatements + " statements");
+        assertTrue(largeOrderStatements <= 4, "40-item order used " + largeOrderStatements + " statements");
+    }
+
+    @Test
+    void findSummariesByStatusIn_pagesByOrderIdInOneQueryEach() {
+        // Arrange: 5 open orders and 1 completed one
+        for (int i = 0; i < 5; i++) {
+            repository.save(new CustomerOrders(testUser, BigDecimal.ONE, LocalDate.now(), i % 2 == 0 ? "PENDING" : "PICKUP"));
+        }
+        repository.save(new CustomerOrders(testUser, BigDecimal.ONE, LocalDate.now(), "COMPLETED"));
+        entityManager.flush();
+        entityManager.clear();
+        List<String> open = List.of("PENDING", "PICKUP");
+
+        // Act: walk the board two rows at a time
+        statistics.clear();
+        List<CustomerOrdersSummaryDTO> firstPage = repository.findSummariesByStatusIn(open, 0, Limit.of(2));
+        long firstPageStatements = statistics.getPrepareStatementCount();
+        List<CustomerOrdersSummaryDTO> secondPage = repository.findSummariesByStatusIn(open, firstPage.get(1).orderId(), Limit.of(2));
+        List<CustomerOrdersSummaryDTO> lastPage = repository.findSummariesByStatusIn(open, secondPage.get(1).orderId(), Limit.of(2));
+
+        // Assert: one query per page, no entities (and no lazy user loads) behind it
+        assertEquals(1, firstPageStatements, "A page should be a single query");
+        assertEquals(0, statistics.getEntityLoadCount(), "Summaries should be projected, not loaded as entities");
+        assertEquals(2, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertEquals(1, lastPage.size(), "The completed order is not on the board");
+        assertTrue(firstPage.get(1).orderId() < secondPage.get(0).orderId(), "Pages should be in orderId order");
+        assertEquals(testUser.getUserId(), lastPage.get(0).userId());
+    }
+
+    @Test
+    void findHistoryAfter_walksCustomersOrdersNewestFirst() {
+        // Arrange: 5 orders over 3 days (two days share several orders), plus another customer's order
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = List.of(today.minusDays(2), today, today.minusDays(1), today, today.minusDays(1));
+        for (LocalDate date : dates) {
+            repository.save(new CustomerOrders(testUser, BigDecimal.ONE, date, "COMPLETED"));
+        }
+        AppUser otherUser = entityManager.persist(new AppUser("other@example.com", null, "CUSTOMER", "Other", "User"));
+        repository.save(new CustomerOrders(otherUser, BigDecimal.ONE, today, "PENDING"));
+        entityManager.flush();
+        entityManager.clear();
+        Long userId = testUser.getUserId();
+
+        // Act: two at a time, each page seeking past the last row of the previous one
+        statistics.clear();
+        List<CustomerOrdersSummaryDTO> firstPage = repository.findHistory(userId, Limit.of(2));
+        CustomerOrdersSummaryDTO last = firstPage.get(1);
+        List<CustomerOrdersSummaryDTO> secondPage = repository.findHistoryAfter(userId, last.orderDate(), last.orderId(), Limit.of(2));
+        long pageStatements = statistics.getPrepareStatementCount();
+        last = secondPage.get(1);
+        List<CustomerOrdersSummaryDTO> lastPage = repository.findHistoryAfter(userId, last.orderDate(), last.orderId(), Limit.of(2));
+
+        // Assert: every order once, newest first (ties broken by orderId), never another customer's
+        List<CustomerOrdersSummaryDTO> all = new ArrayList<>(firstPage);
+        all.addAll(secondPage);
+        all.addAll(lastPage);
+        assertEquals(5, all.size());
+        assertEquals(1, lastPage.size());
+        assertTrue(all.stream().allMatch(order -> order.userId().equals(userId)));
+        for (int i = 1; i < all.size(); i++) {
+            CustomerOrdersSummaryDTO newer = all.get(i - 1);
+            CustomerOrdersSummaryDTO older = all.get(i);
+            assertTrue(newer.orderDate().isAfter(older.orderDate())
+                    || (newer.orderDate().equals(older.orderDate()) && newer.orderId() > older.orderId()),
+                    "History should be in (orderDate, orderId) descending order");
+        }
+        assertEquals(2, pageStatements, "Each page should be a single query");
+        assertEquals(0, statistics.getEntityLoadCount(), "History pages should be projected, not loaded as entities");
+    }
+
+    @Test
+    void findOrderDate_otherUsersOrder_isEmpty() {
+        // Arrange
+        CustomerOrders order = repository.save(new CustomerOrders(testUser, BigDecimal.TEN, LocalDate.now(), "PENDING"));
+        entityManager.flush();
+
+        // Act & Assert: a cursor can't be used to probe someone else's orders
+        assertEquals(LocalDate.now(), repository.findOrderDate(order.getOrderId(), testUser.getUserId()).orElseThrow());
+        assertTrue(repository.findOrderDate(order.getOrderId(), testUser.getUserId() + 1).isEmpty());
+    }
+
+    @Test
+    void findWithItemsByOrderIdAndUserId_loadsItemsInOneQueryWithoutProducts() {
+        // Arrange: an order whose items point at three different products
+        CustomerOrders order = new CustomerOrders(testUser, BigDecimal.TEN, LocalDate.now(), "PENDING");
+        for (int i = 0; i < 3; i++) {
+            Products product = entityManager.persist(new Products("COFFEE", "Latte " + i, BigDecimal.ONE, "Test description", "IN_STOCK"));
+            order.getOrderItems().add(new OrderItems(order, product, 1, BigDecimal.ONE));
+        }
+        repository.save(order);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act: load the order and read everything the detail DTO needs
+        statistics.clear();
+        CustomerOrders loaded = repository.findWithItemsByOrderIdAndUser_UserId(order.getOrderId(), testUser.getUserId()).orElseThrow();
+        List<String> productNames = loaded.getOrderItems().stream()
+                .map(OrderItems::getProductName)
+                .toList();
+        loaded.getOrderItems().forEach(item -> item.getProduct().getProductId());
+
+        // Assert: one round trip instead of 2 + N, and Products is never touched
+        assertEquals(List.of("Latte 0", "Latte 1", "Latte 2"), productNames.stream().sorted().toList());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Order detail should load in a single query");
+        assertTrue(loaded.getOrderItems().stream().noneMatch(item -> Hibernate.isInitialized(item.getProduct())),
+                "Product rows should not be loaded for the detail view");
+    }
+
+    @Test
+    void orderItems_keepProductSnapshotAfterRename() {
+        // Arrange: sell an Espresso, then rename and re-categorize the product
+        CustomerOrders order = new CustomerOrders(testUser, BigDecimal.TEN, LocalDate.now(), "COMPLETED");
+        order.getOrderItems().add(new OrderItems(order, testProduct, 1, testProduct.getBasePrice()));
+        repository.save(order);
+        testProduct.setName("Double Espresso");
+        testProduct.setCategory("SPECIALS");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        OrderItems item = repository.findWithItemsByOrderIdAndUser_UserId(order.getOrderId(), testUser.getUserId())
+                .orElseThrow().getOrderItems().get(0);
+
+        // Assert: the receipt still shows what was sold
+        assertEquals("Espresso", item.getProductName());
+        assertEquals("COFFEE", item.getProductCategory());
+    }
+
+    @Test
+    void findWithItemsByOrderIdAndUserId_otherUsersOrder_isEmpty() {
+        // Arrange
+        CustomerOrders order = repository.save(new CustomerOrders(testUser, BigDecimal.TEN, LocalDate.now(), "PENDING"));
+        entityManager.flush();
+
+        // Act & Assert: the ownership check still applies
+        assertTrue(repository.findWithItemsByOrderIdAndUser_UserId(order.getOrderId(), testUser.getUserId() + 1).isEmpty());
+    }
+
+    @Test
+    void updateStatus_onlyMovesOrderFromExpectedStatus() {
+        // Arrange
+        CustomerOrders order = repository.save(new CustomerOrders(testUser, BigDecimal.TEN, LocalDate.now(), "PENDING"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act: two screens both try PENDING -> PICKUP
+        statistics.clear();
+        int first = repository.updateStatus(order.getOrderId(), "PENDING", "PICKUP");
+        long firstStatements = statistics.getPrepareStatementCount();
+        int second = repository.updateStatus(order.getOrderId(), "PENDING", "PICKUP");
+
+        // Assert: a single UPDATE, and only the first one matches
+        assertEquals(1, first);
+        assertEquals(0, second, "The losing update should match no rows");
+        assertEquals(1, firstStatements, "A status change should be a single statement");
+        assertEquals(0, statistics.getEntityLoadCount(), "A status change should not load the order");
+        assertEquals("PICKUP", repository.findSummaryById(order.getOrderId()).orElseThrow().status());
+    }
+
+    private long statementsToSave(int itemCount) {
+        CustomerOrders order = new CustomerOrders(testUser, BigDecimal.ZERO, LocalDate.now(), "PENDING");
+        for (int i = 0; i < itemCount; i++) {
+            order.getOrderItems().add(new OrderItems(order, testProduct, 1, testProduct.getBasePrice()));
+        }
+
+        statistics.clear();
+        repository.save(order);
+        entityManager.flush();
+
+        assertEquals(itemCount, order.getOrderItems().stream().filter(item -> item.getItemId() != null).count());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -154,6 +155,28 @@ class AppUserServiceTest {
         verify(repository, times(1)).save(any(AppUser.class));
     }
 
+    @Test
+    void testRegisterNewCustomer_WithRegisterCustomerDTO_NormalizesEmail() {
+        // Arrange: mixed case and stray whitespace, as typed
+        RegisterCustomerDTO dto = new RegisterCustomerDTO(
+            " Jane@X.com ",
+            "password123",
+            "Jane",
+            "Doe"
+        );
+
+        when(repository.findByEmail(" Jane@X.com ")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode("password123")).thenReturn("hashedPassword123");
+        when(repository.save(any(AppUser.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        AppUserDTO result = service.registerNewCustomer(dto);
+
+        // Assert: stored the way guest checkout and login look it up
+        assertEquals("jane@x.com", result.email());
+        verify(repository, times(1)).save(argThat(user -> user.getEmail().equals("jane@x.com")));
+    }
+
     @Test
     void testRegisterNewCustomer_WithRegisterCustomerDTO_EmailAlreadyExists() {
         // Arrange
@@ -401,4 +424,17 @@ class AppUserServiceTest {
         assertNotNull(result);
         assertEquals("ADMIN", result.userRole());
     }
+
+    @Test
+    void testSaveNewCustomer_EmailTakenInTheMeantime_ThrowsIllegalArgument() {
+        // Arrange: another registration with the same email committed while this one was hashing
+        RegisterCustomerDTO dto = new RegisterCustomerDTO("race@example.com", "password123", "Customer", "Name");
+        when(repository.save(any(AppUser.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act & Assert: reported like the up-front check, not as a server error
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.saveNewCustomer(dto, "hashedPassword123"));
+        assertEquals("Email already in use.", exception.getMessage());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
 }
@@ -0,0 +1,71 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.ProductsWOIDDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSourceTest {
+
+    private static CatalogSource source(String json) {
+        return new CatalogSource(JsonMapper.builder().build(), new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void load_bundledCatalog_isValid() {
+        // Arrange
+        CatalogSource source = new CatalogSource(JsonMapper.builder().build(), new ClassPathResource("catalog/products.json"));
+
+        // Act
+        List<ProductsWOIDDTO> catalog = source.load();
+
+        // Assert
+        assertFalse(catalog.isEmpty());
+    }
+
+    @Test
+    void load_missingAvailability_defaultsToInStock() {
+        // Arrange
+        CatalogSource source = source("""
+                [{"category": "COFFEE", "name": "Cappuccino", "basePrice": 4.50, "description": "Foamy."}]
+                """);
+
+        // Act
+        ProductsWOIDDTO entry = source.load().get(0);
+
+        // Assert
+        assertEquals(new BigDecimal("4.50"), entry.basePrice());
+        assertEquals(CatalogSource.DEFAULT_AVAILABILITY, entry.availability());
+    }
+
+    @Test
+    void load_duplicateKey_rejected() {
+        // Arrange: same (category, name) twice
+        CatalogSource source = source("""
+                [{"category": "COFFEE", "name": "Cappuccino", "basePrice": 4.50, "description": "Foamy."},
+                 {"category": "COFFEE", "name": "Cappuccino", "basePrice": 4.75, "description": "Foamier."}]
+                """);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, source::load);
+        assertTrue(exception.getMessage().contains("Cappuccino"));
+    }
+
+    @Test
+    void load_missingPrice_rejected() {
+        // Arrange
+        CatalogSource source = source("""
+                [{"category": "COFFEE", "name": "Cappuccino", "description": "Foamy."}]
+                """);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, source::load);
+    }
+}
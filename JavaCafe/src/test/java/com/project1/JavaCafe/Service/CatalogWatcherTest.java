@@ -0,0 +1,102 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CatalogSyncResultDTO;
+import com.project1.JavaCafe.DTO.ProductsWOIDDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CatalogWatcherTest {
+
+    private static final String ESPRESSO = """
+            [{"category": "COFFEE", "name": "Espresso", "basePrice": %s, "description": "A rich, bold shot."}]
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final ProductsService productsService = mock(ProductsService.class);
+    private CatalogWatcher watcher;
+
+    private CatalogWatcher watcher() {
+        when(productsService.syncCatalog(anyList())).thenReturn(new CatalogSyncResultDTO(1, 0, 1, 0, 0));
+        watcher = new CatalogWatcher(new CatalogSource(JsonMapper.builder().build(), null), productsService, dir.toString(), 50);
+        return watcher;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void start_appliesFilesAlreadyInDirectory() throws IOException {
+        // Arrange
+        Files.writeString(dir.resolve("menu.json"), ESPRESSO.formatted("3.00"));
+
+        // Act
+        watcher().start();
+
+        // Assert
+        verify(productsService, times(1)).syncCatalog(List.of(
+                new ProductsWOIDDTO("COFFEE", "Espresso", new BigDecimal("3.00"), "A rich, bold shot.", "IN_STOCK")));
+    }
+
+    @Test
+    void changedFile_isSyncedWithoutRestart() throws IOException {
+        // Arrange
+        watcher().start();
+
+        // Act: a price change lands while the app is running
+        Files.writeString(dir.resolve("menu.json"), ESPRESSO.formatted("3.25"));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductsWOIDDTO>> catalog = ArgumentCaptor.forClass(List.class);
+        verify(productsService, timeout(5000).atLeastOnce()).syncCatalog(catalog.capture());
+        assertEquals(new BigDecimal("3.25"), catalog.getValue().get(0).basePrice());
+    }
+
+    @Test
+    void reload_invalidFile_changesNothing() throws IOException {
+        // Arrange: missing basePrice
+        Path file = dir.resolve("menu.json");
+        Files.writeString(file, """
+                [{"category": "COFFEE", "name": "Espresso", "description": "A rich, bold shot."}]
+                """);
+
+        // Act
+        CatalogSyncResultDTO result = watcher().reload(file);
+
+        // Assert
+        assertNull(result);
+        verify(productsService, never()).syncCatalog(any());
+    }
+
+    @Test
+    void start_noDirectoryConfigured_doesNothing() {
+        // Arrange
+        watcher = new CatalogWatcher(mock(CatalogSource.class), productsService, "", 50);
+
+        // Act
+        watcher.start();
+
+        // Assert
+        verifyNoInteractions(productsService);
+    }
+}
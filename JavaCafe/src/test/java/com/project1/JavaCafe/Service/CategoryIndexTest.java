@@ -0,0 +1,55 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CategoryFacetDTO;
+import com.project1.JavaCafe.DTO.ProductsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryIndexTest {
+
+    private static ProductsDTO product(long id, String category, String price, String availability) {
+        return new ProductsDTO(id, category, "Product " + id, new BigDecimal(price), "Description " + id, availability, 0L);
+    }
+
+    @Test
+    void of_groupsByCategoryInNameOrder_keepingProductOrder() {
+        // Arrange
+        List<ProductsDTO> products = List.of(
+                product(1, "SMOOTHIES", "5.50", "IN_STOCK"),
+                product(2, "COFFEE", "3.00", "IN_STOCK"),
+                product(3, "SMOOTHIES", "6.25", "OUT_OF_STOCK"));
+
+        // Act
+        CategoryIndex index = CategoryIndex.of(products);
+
+        // Assert
+        assertEquals(products, index.all());
+        assertEquals(List.of(1L, 3L), index.get("SMOOTHIES").stream().map(ProductsDTO::productId).toList());
+        assertEquals(List.of("COFFEE", "SMOOTHIES"), index.facets().stream().map(CategoryFacetDTO::category).toList());
+        assertEquals(new CategoryFacetDTO("SMOOTHIES", 2, 1, new BigDecimal("5.50"), new BigDecimal("6.25")), index.facets().get(1));
+    }
+
+    @Test
+    void get_unknownCategory_isEmpty() {
+        // Arrange
+        CategoryIndex index = CategoryIndex.of(List.of(product(1, "COFFEE", "3.00", "IN_STOCK")));
+
+        // Act & Assert
+        assertTrue(index.get("TEA").isEmpty());
+        assertTrue(CategoryIndex.of(List.of()).facets().isEmpty());
+    }
+
+    @Test
+    void lists_areImmutable() {
+        // Arrange
+        CategoryIndex index = CategoryIndex.of(List.of(product(1, "COFFEE", "3.00", "IN_STOCK")));
+
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> index.get("COFFEE").clear());
+        assertThrows(UnsupportedOperationException.class, () -> index.all().clear());
+    }
+}
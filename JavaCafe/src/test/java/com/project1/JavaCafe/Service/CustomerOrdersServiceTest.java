@@ -12,9 +12,15 @@ import com.project1.JavaCafe.Repository.ProductsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
@@ -22,9 +28,11 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +50,16 @@ class CustomerOrdersServiceTest {
     @Mock
     private OrderItemsRepository IRepo;
 
+    @Mock
+    private SalesSummaryService salesSummary;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    // Real conflict handling (no retries for user edits, so no transactions are opened)
+    @Spy
+    private OptimisticLockRetry lockRetry = new OptimisticLockRetry(mock(PlatformTransactionManager.class), 1, 0, 0);
+
     @InjectMocks
     private CustomerOrdersService service;
 
@@ -110,8 +128,9 @@ class CustomerOrdersServiceTest {
         AppUser savedGuestUser = new AppUser("guest@example.com", null, "GUEST", "Jane", "Smith");
         savedGuestUser.setUserId(2L);
 
-        when(ARepo.save(any(AppUser.class))).thenReturn(savedGuestUser);
-        when(PRepo.findById(1L)).thenReturn(Optional.of(testProduct));
+        // First-time guest: not found, inserted, then read back
+        when(ARepo.findByEmail("guest@example.com")).thenReturn(Optional.empty(), Optional.of(savedGuestUser));
+        when(PRepo.findAllById(Set.of(1L))).thenReturn(List.of(testProduct));
         when(CRepo.save(any(CustomerOrders.class))).thenAnswer(invocation -> {
             CustomerOrders order = invocation.getArgument(0);
             order.setOrderId(1);
@@ -130,10 +149,14 @@ class CustomerOrdersServiceTest {
         assertEquals("PENDING", result.status(), "Order status should be PENDING");
         assertNotNull(result.items(), "Items list should be present in the result");
         assertEquals(1, result.items().size(), "There should be one item in the order");
+        assertNotNull(result.guestToken(), "The guest should get a token to look the order up later");
+        assertEquals(32, result.guestToken().length(), "24 random bytes, URL-safe Base64");
 
-        verify(ARepo, times(1)).save(any(AppUser.class));
-        verify(PRepo, times(1)).findById(1L);
+        verify(ARepo, times(1)).insertGuestIfAbsent("guest@example.com", "Jane", "Smith");
+        verify(ARepo, never()).save(any(AppUser.class));
+        verify(PRepo, times(1)).findAllById(Set.of(1L));
         verify(CRepo, times(1)).save(any(CustomerOrders.class));
+        verify(salesSummary, times(1)).recordOrder(LocalDate.now(), 2);
     }
 
     @Test
@@ -148,11 +171,7 @@ class CustomerOrdersServiceTest {
             List.of(cartItem)
         );
 
-        AppUser savedGuestUser = new AppUser("guest@example.com", null, "GUEST", "Jane", "Smith");
-        savedGuestUser.setUserId(2L);
-
-        when(ARepo.save(any(AppUser.class))).thenReturn(savedGuestUser);
-        when(PRepo.findById(999L)).thenReturn(Optional.empty());
+        when(PRepo.findAllById(Set.of(999L))).thenReturn(List.of());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -160,11 +179,48 @@ class CustomerOrdersServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Product not found with ID: 999"));
-        verify(ARepo, times(1)).save(any(AppUser.class));
-        verify(PRepo, times(1)).findById(999L);
+        // The cart is priced before the guest user is written
+        verify(ARepo, never()).insertGuestIfAbsent(any(), any(), any());
+        verify(PRepo, times(1)).findAllById(Set.of(999L));
         verify(CRepo, never()).save(any(CustomerOrders.class));
     }
 
+    @Test
+    void testCreateGuestOrder_ReturningGuest_NormalizesEmailAndReusesUser() {
+        // Arrange: same guest, different case and whitespace
+        GuestCheckoutDTO guestOrder = new GuestCheckoutDTO(" Guest@Example.COM ", "Jane", "Smith", List.of(new CartItemInputDTO(1L, 1)));
+        AppUser existingGuest = new AppUser("guest@example.com", null, "GUEST", "Jane", "Smith");
+        existingGuest.setUserId(2L);
+
+        when(PRepo.findAllById(Set.of(1L))).thenReturn(List.of(testProduct));
+        when(ARepo.findByEmail("guest@example.com")).thenReturn(Optional.of(existingGuest));
+        when(CRepo.save(any(CustomerOrders.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        CustomerOrdersDTO result = service.createGuestOrder(guestOrder);
+
+        // Assert: the order hangs off the existing guest, and no user row is written
+        assertEquals(2L, result.userId());
+        verify(ARepo, never()).insertGuestIfAbsent(any(), any(), any());
+        verify(ARepo, never()).save(any(AppUser.class));
+    }
+
+    @Test
+    void testCreateGuestOrder_RegisteredEmail_Conflict() {
+        // Arrange: the email belongs to a customer account
+        GuestCheckoutDTO guestOrder = new GuestCheckoutDTO("test@example.com", "John", "Doe", List.of(new CartItemInputDTO(1L, 1)));
+
+        when(PRepo.findAllById(Set.of(1L))).thenReturn(List.of(testProduct));
+        when(ARepo.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.createGuestOrder(guestOrder));
+
+        assertEquals(409, exception.getStatusCode().value());
+        verify(CRepo, never()).save(any(CustomerOrders.class));
+        verify(salesSummary, never()).recordOrder(any(), anyInt());
+    }
+
     @Test
     void testCreate_Success() {
         // Arrange: 
@@ -186,7 +242,7 @@ class CustomerOrdersServiceTest {
         );
 
         when(ARepo.findById(1L)).thenReturn(Optional.of(testUser));
-        when(PRepo.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(PRepo.findAllById(Set.of(1L))).thenReturn(List.of(testProduct));
         when(CRepo.save(any(CustomerOrders.class))).thenAnswer(invocation -> {
             CustomerOrders order = invocation.getArgument(0);
             order.setOrderId(1);
@@ -205,8 +261,15 @@ class CustomerOrdersServiceTest {
         assertEquals("PENDING", result.status(), "Status should be PENDING");
 
         verify(ARepo, times(1)).findById(1L);
-        verify(PRepo, times(1)).findById(1L);
+        verify(PRepo, times(1)).findAllById(Set.of(1L));
         verify(CRepo, times(1)).save(any(CustomerOrders.class));
+        verify(salesSummary, times(1)).recordOrder(LocalDate.now(), 2);
+
+        // the kitchen board is told about the new order
+        ArgumentCaptor<OrderChangedEvent> event = ArgumentCaptor.forClass(OrderChangedEvent.class);
+        verify(events, times(1)).publishEvent(event.capture());
+        assertEquals(OrderChangedEvent.CREATED, event.getValue().type());
+        assertEquals(1, event.getValue().order().orderId());
     }
 
     @Test
@@ -231,7 +294,7 @@ class CustomerOrdersServiceTest {
 
         assertTrue(exception.getMessage().contains("User not found with ID: 999"));
         verify(ARepo, times(1)).findById(999L);
-        verify(PRepo, never()).findById(any());
+        verify(PRepo, never()).findAllById(any());
         verify(CRepo, never()).save(any(CustomerOrders.class));
     }
 
@@ -250,7 +313,7 @@ class CustomerOrdersServiceTest {
         );
 
         when(ARepo.findById(1L)).thenReturn(Optional.of(testUser));
-        when(PRepo.findById(999L)).thenReturn(Optional.empty());
+        when(PRepo.findAllById(Set.of(999L))).thenReturn(List.of());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -259,8 +322,9 @@ class CustomerOrdersServiceTest {
 
         assertTrue(exception.getMessage().contains("Product not found with ID: 999"));
         verify(ARepo, times(1)).findById(1L);
-        verify(PRepo, times(1)).findById(999L);
+        verify(PRepo, times(1)).findAllById(Set.of(999L));
         verify(CRepo, never()).save(any(CustomerOrders.class));
+        verify(salesSummary, never()).recordOrder(any(), anyInt());
     }
 
     @Test
@@ -272,11 +336,11 @@ class CustomerOrdersServiceTest {
             1L,                     // User ID
             new BigDecimal("10.00"), // New total cost
             LocalDate.now(),        // New date (if applicable)
-            "COMPLETED"            // New status
+            "PICKUP"               // New status
         );
 
         when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
-        when(CRepo.save(any(CustomerOrders.class))).thenAnswer(invocation -> {
+        when(CRepo.saveAndFlush(any(CustomerOrders.class))).thenAnswer(invocation -> {
             CustomerOrders order = invocation.getArgument(0);
             return order;
         });
@@ -288,11 +352,11 @@ class CustomerOrdersServiceTest {
         // verify update returned expected summary fields
         assertNotNull(result, "Update should return a CustomerOrdersSummaryDTO");
         assertEquals(1, result.orderId(), "Order ID should remain the same after update");
-        assertEquals("COMPLETED", result.status(), "Status should be updated to COMPLETED");
+        assertEquals("PICKUP", result.status(), "Status should be updated to PICKUP");
         assertEquals(new BigDecimal("10.00"), result.totalCost(), "Total cost should be updated to new value");
 
         verify(CRepo, times(1)).findById(1);
-        verify(CRepo, times(1)).save(any(CustomerOrders.class));
+        verify(CRepo, times(1)).saveAndFlush(any(CustomerOrders.class));
     }
 
     @Test
@@ -315,7 +379,7 @@ class CustomerOrdersServiceTest {
 
         assertTrue(exception.getMessage().contains("Order not found with ID: 999"));
         verify(CRepo, times(1)).findById(999);
-        verify(CRepo, never()).save(any(CustomerOrders.class));
+        verify(CRepo, never()).saveAndFlush(any(CustomerOrders.class));
     }
 
     @Test
@@ -331,7 +395,7 @@ class CustomerOrdersServiceTest {
         );
 
         when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
-        when(CRepo.save(any(CustomerOrders.class))).thenAnswer(invocation -> {
+        when(CRepo.saveAndFlush(any(CustomerOrders.class))).thenAnswer(invocation -> {
             CustomerOrders order = invocation.getArgument(0);
             return order;
         });
@@ -347,47 +411,242 @@ class CustomerOrdersServiceTest {
         assertEquals(new BigDecimal("6.00"), result.totalCost(), "Total cost should remain the original value");
 
         verify(CRepo, times(1)).findById(1);
-        verify(CRepo, times(1)).save(any(CustomerOrders.class));
+        verify(CRepo, times(1)).saveAndFlush(any(CustomerOrders.class));
     }
 
     @Test
-    void testGetAllOrders_Success() {
+    void testUpdate_DateChanged_MovesOrderInSalesSummary() {
+        // Arrange: only the order date changes
+        LocalDate originalDate = testOrder.getOrderDate();
+        LocalDate newDate = originalDate.minusDays(1);
+        CustomerOrdersSummaryDTO dto = new CustomerOrdersSummaryDTO(1, 1L, null, newDate, null);
+
+        when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
+        when(CRepo.saveAndFlush(any(CustomerOrders.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        CustomerOrdersSummaryDTO result = service.update(1, dto);
+
+        // Assert: the order's 2 items leave the old day and land on the new one
+        assertEquals(newDate, result.orderDate(), "Order date should be updated");
+        verify(salesSummary, times(1)).moveOrder(originalDate, newDate, 2);
+    }
+
+    @Test
+    void testUpdate_StatusOnly_LeavesSalesSummaryAlone() {
         // Arrange
-        CustomerOrders order1 = new CustomerOrders(testUser, new BigDecimal("6.00"), LocalDate.now(), "PENDING");
-        order1.setOrderId(1);
-        CustomerOrders order2 = new CustomerOrders(testUser, new BigDecimal("10.00"), LocalDate.now(), "PICKUP");
-        order2.setOrderId(2);
-        List<CustomerOrders> orders = List.of(order1, order2);
+        CustomerOrdersSummaryDTO dto = new CustomerOrdersSummaryDTO(1, 1L, null, testOrder.getOrderDate(), "PICKUP");
 
-        when(CRepo.findByStatusIn(List.of("PENDING", "PICKUP"))).thenReturn(orders);
+        when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
+        when(CRepo.saveAndFlush(any(CustomerOrders.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        List<CustomerOrdersSummaryDTO> result = service.getAllOrders();
+        service.update(1, dto);
 
-        // Assert: 
-        // verify returned summary list contains both orders and their IDs match
-        assertNotNull(result, "Resulting orders list should not be null");
-        assertEquals(2, result.size(), "There should be two orders returned");
-        assertEquals(1, result.get(0).orderId(), "First returned order ID should be 1");
-        assertEquals(2, result.get(1).orderId(), "Second returned order ID should be 2");
+        // Assert: same day, so nothing moves
+        verify(salesSummary, never()).moveOrder(any(), any(), anyInt());
+    }
+
+    @Test
+    void testUpdate_StatusChanged_PublishesPreviousAndNewStatus() {
+        // Arrange
+        CustomerOrdersSummaryDTO dto = new CustomerOrdersSummaryDTO(1, 1L, null, null, "PICKUP");
+
+        when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
+        when(CRepo.saveAndFlush(any(CustomerOrders.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        service.update(1, dto);
+
+        // Assert: subscribers watching either status get the change
+        ArgumentCaptor<OrderChangedEvent> event = ArgumentCaptor.forClass(OrderChangedEvent.class);
+        verify(events, times(1)).publishEvent(event.capture());
+        assertEquals(OrderChangedEvent.STATUS_CHANGED, event.getValue().type());
+        assertEquals("PENDING", event.getValue().previousStatus());
+        assertEquals("PICKUP", event.getValue().order().status());
+    }
+
+    @Test
+    void testUpdate_StatusChangedMeanwhile_Conflict() {
+        // Arrange: another screen moved the order after it was loaded, so its version is stale
+        CustomerOrdersSummaryDTO dto = new CustomerOrdersSummaryDTO(1, 1L, null, null, "PICKUP");
+
+        when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
+        when(CRepo.saveAndFlush(any(CustomerOrders.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(CustomerOrders.class, 1));
+
+        // Act & Assert: reported, not overwritten, and nobody is told about a change that didn't happen
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.update(1, dto));
+        assertEquals(409, exception.getStatusCode().value());
+        verify(events, never()).publishEvent(any(Object.class));
+        assertEquals(1, lockRetry.stats().get(0).conflicts(), "The conflict should show up in the metrics");
+        assertEquals(1, lockRetry.stats().get(0).conflicts(), "The conflict should show up in the metrics");
+    }
+
+    @Test
+    void testUpdate_SkippingAStep_BadRequest() {
+        // Arrange
+        CustomerOrdersSummaryDTO dto = new CustomerOrdersSummaryDTO(1, 1L, null, null, "COMPLETED");
+        when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.update(1, dto));
+        assertEquals(400, exception.getStatusCode().value());
+        verify(CRepo, never()).saveAndFlush(any(CustomerOrders.class));
+    }
+
+    @Test
+    void testChangeStatus_Success() {
+        // Arrange
+        CustomerOrdersSummaryDTO moved = new CustomerOrdersSummaryDTO(1, 1L, new BigDecimal("6.00"), LocalDate.now(), "PICKUP");
+        when(CRepo.updateStatus(1, "PENDING", "PICKUP")).thenReturn(1);
+        when(CRepo.findSummaryById(1)).thenReturn(Optional.of(moved));
+
+        // Act
+        CustomerOrdersSummaryDTO result = service.changeStatus(1, "PENDING", "PICKUP");
+
+        // Assert: one conditional UPDATE, no entity load or save
+        assertEquals("PICKUP", result.status());
+        verify(CRepo, never()).findById(anyInt());
+        verify(CRepo, never()).save(any(CustomerOrders.class));
+
+        ArgumentCaptor<OrderChangedEvent> event = ArgumentCaptor.forClass(OrderChangedEvent.class);
+        verify(events, times(1)).publishEvent(event.capture());
+        assertEquals("PENDING", event.getValue().previousStatus());
+    }
+
+    @Test
+    void testChangeStatus_LostRace_Conflict() {
+        // Arrange: the order was already moved by someone else
+        when(CRepo.updateStatus(1, "PENDING", "PICKUP")).thenReturn(0);
+        when(CRepo.existsById(1)).thenReturn(true);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> service.changeStatus(1, "PENDING", "PICKUP"));
+        assertEquals(409, exception.getStatusCode().value());
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testChangeStatus_OrderNotFound() {
+        // Arrange
+        when(CRepo.updateStatus(999, "PENDING", "PICKUP")).thenReturn(0);
+        when(CRepo.existsById(999)).thenReturn(false);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> service.changeStatus(999, "PENDING", "PICKUP"));
+        assertEquals(404, exception.getStatusCode().value());
+    }
 
-        verify(CRepo, times(1)).findByStatusIn(List.of("PENDING", "PICKUP"));
+    @Test
+    void testChangeStatus_SkippingAStep_BadRequest() {
+        // Act & Assert: PENDING can't jump straight to COMPLETED, and nothing is written
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> service.changeStatus(1, "PENDING", "COMPLETED"));
+        assertEquals(400, exception.getStatusCode().value());
+        verify(CRepo, never()).updateStatus(anyInt(), any(), any());
+    }
+
+    @Test
+    void testUpdate_SameStatus_PublishesNothing() {
+        // Arrange: only the total changes
+        CustomerOrdersSummaryDTO dto = new CustomerOrdersSummaryDTO(1, 1L, new BigDecimal("7.00"), null, "PENDING");
+
+        when(CRepo.findById(1)).thenReturn(Optional.of(testOrder));
+        when(CRepo.saveAndFlush(any(CustomerOrders.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        service.update(1, dto);
+
+        // Assert
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testGetAllOrders_Success() {
+        // Arrange: the repository projects rows straight into summary DTOs
+        CustomerOrdersSummaryDTO row = new CustomerOrdersSummaryDTO(1, 1L, new BigDecimal("6.00"), LocalDate.now(), "PENDING");
+        when(CRepo.findSummariesByStatusIn(List.of("PENDING", "PICKUP"), 0, Limit.of(50))).thenReturn(List.of(row));
+
+        // Act: first page, default size
+        List<CustomerOrdersSummaryDTO> result = service.getAllOrders(null, null);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).orderId());
+        assertEquals("PENDING", result.get(0).status());
+        verify(CRepo, times(1)).findSummariesByStatusIn(List.of("PENDING", "PICKUP"), 0, Limit.of(50));
+        verify(CRepo, never()).findAll();
     }
 
     @Test
     void testGetAllOrders_EmptyList() {
         // Arrange
-        when(CRepo.findByStatusIn(List.of("PENDING", "PICKUP"))).thenReturn(new ArrayList<>());
+        when(CRepo.findSummariesByStatusIn(List.of("PENDING", "PICKUP"), 0, Limit.of(50))).thenReturn(new ArrayList<>());
 
         // Act
-        List<CustomerOrdersSummaryDTO> result = service.getAllOrders();
+        List<CustomerOrdersSummaryDTO> result = service.getAllOrders(null, null);
 
-        // Assert: 
-        // empty repository case should return empty list
-        assertNotNull(result, "Result list should not be null even when empty");
-        assertTrue(result.isEmpty(), "Result should be empty when no orders are found");
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        verify(CRepo, times(1)).findSummariesByStatusIn(List.of("PENDING", "PICKUP"), 0, Limit.of(50));
+    }
 
-        verify(CRepo, times(1)).findByStatusIn(List.of("PENDING", "PICKUP"));
+    @Test
+    void testGetAllOrders_NextPage_SeeksPastCursorAndCapsLimit() {
+        // Arrange
+        when(CRepo.findSummariesByStatusIn(List.of("PENDING", "PICKUP"), 120, Limit.of(200))).thenReturn(List.of());
+
+        // Act: an oversized limit is capped
+        service.getAllOrders(120, 10_000);
+
+        // Assert
+        verify(CRepo, times(1)).findSummariesByStatusIn(List.of("PENDING", "PICKUP"), 120, Limit.of(200));
+    }
+
+    @Test
+    void testGetOrderHistory_FirstPage_DefaultsPageSize() {
+        // Arrange
+        List<CustomerOrdersSummaryDTO> page = List.of(new CustomerOrdersSummaryDTO(7, 1L, new BigDecimal("6.00"), LocalDate.now(), "PENDING"));
+        when(CRepo.findHistory(1L, Limit.of(50))).thenReturn(page);
+
+        // Act
+        List<CustomerOrdersSummaryDTO> result = service.getOrderHistory(1L, null, null);
+
+        // Assert
+        assertEquals(page, result);
+        verify(CRepo, never()).findOrderDate(any(), any());
+    }
+
+    @Test
+    void testGetOrderHistory_NextPage_SeeksPastCursorOrder() {
+        // Arrange: the last order of the previous page was #7 on the 3rd
+        LocalDate cursorDate = LocalDate.of(2025, 1, 3);
+        when(CRepo.findOrderDate(7, 1L)).thenReturn(Optional.of(cursorDate));
+        when(CRepo.findHistoryAfter(1L, cursorDate, 7, Limit.of(200))).thenReturn(List.of());
+
+        // Act: an oversized limit is capped
+        List<CustomerOrdersSummaryDTO> result = service.getOrderHistory(1L, 7, 10_000);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(CRepo, times(1)).findHistoryAfter(1L, cursorDate, 7, Limit.of(200));
+    }
+
+    @Test
+    void testGetOrderHistory_SomeoneElsesCursor_BadRequest() {
+        // Arrange
+        when(CRepo.findOrderDate(99, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> service.getOrderHistory(1L, 99, 20));
+        assertEquals(400, exception.getStatusCode().value());
+        verify(CRepo, never()).findHistoryAfter(any(), any(), any(), any());
     }
 
     @Test
@@ -409,6 +668,52 @@ class CustomerOrdersServiceTest {
         verify(CRepo, times(1)).findByOrderIdAndUser_UserId(1, 1L);
     }
 
+    @Test
+    void testGetGuestOrder_GuestEmail_ReturnsOrder() {
+        // Arrange: order 1 belongs to a guest account
+        AppUser guest = new AppUser("guest@example.com", null, "GUEST", "Jane", "Smith");
+        guest.setUserId(2L);
+        when(ARepo.findByEmail("Guest@Example.com")).thenReturn(Optional.of(guest));
+        testOrder.setGuestToken("secret-token");
+        when(CRepo.findByOrderIdAndUser_UserId(1, 2L)).thenReturn(Optional.of(testOrder));
+
+        // Act
+        CustomerOrdersSummaryDTO result = service.getGuestOrder(1, "Guest@Example.com", "secret-token");
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.orderId());
+    }
+
+    @Test
+    void testGetGuestOrder_WrongToken_NotFound() {
+        // Arrange: the right order number and email are not enough without the order's token
+        AppUser guest = new AppUser("guest@example.com", null, "GUEST", "Jane", "Smith");
+        guest.setUserId(2L);
+        when(ARepo.findByEmail("guest@example.com")).thenReturn(Optional.of(guest));
+        testOrder.setGuestToken("secret-token");
+        when(CRepo.findByOrderIdAndUser_UserId(1, 2L)).thenReturn(Optional.of(testOrder));
+
+        // Act
+        CustomerOrdersSummaryDTO result = service.getGuestOrder(1, "guest@example.com", "guessed-token");
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void testGetGuestOrder_RegisteredEmail_NotFound() {
+        // Arrange: the email belongs to a customer account, whose orders need a token
+        when(ARepo.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        CustomerOrdersSummaryDTO result = service.getGuestOrder(1, "test@example.com", "secret-token");
+
+        // Assert
+        assertNull(result);
+        verify(CRepo, never()).findByOrderIdAndUser_UserId(any(), any());
+    }
+
     @Test
     void testGetByIdAndUserId_NotFound() {
         // Arrange
@@ -427,7 +732,7 @@ class CustomerOrdersServiceTest {
     @Test
     void testGetDetailsWithItems_Success() {
         // Arrange
-        when(CRepo.findByOrderIdAndUser_UserId(1, 1L)).thenReturn(Optional.of(testOrder));
+        when(CRepo.findWithItemsByOrderIdAndUser_UserId(1, 1L)).thenReturn(Optional.of(testOrder));
 
         // Act
         CustomerOrdersDTO result = service.getDetailsWithItems(1, 1L);
@@ -440,14 +745,15 @@ class CustomerOrdersServiceTest {
         assertNotNull(result.items(), "Items list should be present in detailed DTO");
         assertEquals(1, result.items().size(), "There should be one item in the detailed DTO");
         assertEquals(1, result.items().get(0).itemId(), "Item ID should match the test order item");
+        assertEquals("Espresso", result.items().get(0).ProductName(), "Product name should come from the item's snapshot");
 
-        verify(CRepo, times(1)).findByOrderIdAndUser_UserId(1, 1L);
+        verify(CRepo, times(1)).findWithItemsByOrderIdAndUser_UserId(1, 1L);
     }
 
     @Test
     void testGetDetailsWithItems_NotFound() {
         // Arrange
-        when(CRepo.findByOrderIdAndUser_UserId(999, 1L)).thenReturn(Optional.empty());
+        when(CRepo.findWithItemsByOrderIdAndUser_UserId(999, 1L)).thenReturn(Optional.empty());
 
         // Act
         CustomerOrdersDTO result = service.getDetailsWithItems(999, 1L);
@@ -456,7 +762,7 @@ class CustomerOrdersServiceTest {
         // when details are requested for non-existent order return null
         assertNull(result, "getDetailsWithItems should return null when order is not found");
 
-        verify(CRepo, times(1)).findByOrderIdAndUser_UserId(999, 1L);
+        verify(CRepo, times(1)).findWithItemsByOrderIdAndUser_UserId(999, 1L);
     }
 
     @Test
@@ -485,9 +791,9 @@ class CustomerOrdersServiceTest {
         AppUser savedGuestUser = new AppUser("guest@example.com", null, "GUEST", "Jane", "Smith");
         savedGuestUser.setUserId(2L);
 
-        when(ARepo.save(any(AppUser.class))).thenReturn(savedGuestUser);
-        when(PRepo.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(PRepo.findById(2L)).thenReturn(Optional.of(product2));
+        // Returning guest: the existing row is reused
+        when(ARepo.findByEmail("guest@example.com")).thenReturn(Optional.of(savedGuestUser));
+        when(PRepo.findAllById(Set.of(1L, 2L))).thenReturn(List.of(testProduct, product2));
         when(CRepo.save(any(CustomerOrders.class))).thenAnswer(invocation -> {
             CustomerOrders order = invocation.getArgument(0);
             order.setOrderId(1);
@@ -503,9 +809,40 @@ class CustomerOrdersServiceTest {
         assertEquals(new BigDecimal("10.00"), result.totalCost(), "Total cost should be 2*3.00 + 1*4.00 = 10.00");
         assertEquals(2, result.items().size(), "There should be two items in the order");
 
-        verify(ARepo, times(1)).save(any(AppUser.class));
-        verify(PRepo, times(1)).findById(1L);
-        verify(PRepo, times(1)).findById(2L);
+        verify(ARepo, never()).insertGuestIfAbsent(any(), any(), any());
+        verify(PRepo, times(1)).findAllById(Set.of(1L, 2L));
         verify(CRepo, times(1)).save(any(CustomerOrders.class));
     }
+
+    @Test
+    void testCreate_MultipleProductsNotFound_ReportsAllMissingIds() {
+        // Arrange: 
+        // two of the three products in the cart do not exist
+        CustomerOrdersWOIDDTO dto = new CustomerOrdersWOIDDTO(
+            "test@example.com",
+            1L,
+            null,
+            LocalDate.now(),
+            "PENDING",
+            List.of(
+                new OrderItemsWOIDDTO(null, 1L, 1, null, "Espresso"),
+                new OrderItemsWOIDDTO(null, 998L, 1, null, "Missing"),
+                new OrderItemsWOIDDTO(null, 999L, 1, null, "Missing")
+            )
+        );
+
+        when(ARepo.findById(1L)).thenReturn(Optional.of(testUser));
+        when(PRepo.findAllById(Set.of(1L, 998L, 999L))).thenReturn(List.of(testProduct));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            service.create(dto, 1L);
+        });
+
+        // Both unknown IDs are reported in one message, from one query
+        assertTrue(exception.getMessage().contains("998, 999"), "All missing product IDs should be reported together");
+        verify(PRepo, times(1)).findAllById(any());
+        verify(PRepo, never()).findById(any());
+        verify(CRepo, never()).save(any(CustomerOrders.class));
+    }
 }
@@ -0,0 +1,235 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersDTO;
+import com.project1.JavaCafe.Model.IdempotencyRecord;
+import com.project1.JavaCafe.Repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private CustomerOrdersService orderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService service;
+
+    private final CustomerOrdersDTO order = new CustomerOrdersDTO(7, 5L, new BigDecimal("6.00"), LocalDate.now(), "PENDING", List.of(), null);
+
+    @BeforeEach
+    void setUp() {
+        // Group commit off: writes run inline on the calling thread
+        OrderIngestionQueue ingestion = new OrderIngestionQueue(transactionManager, false, 32, 5, 100, 10);
+        service = new IdempotencyService(repository, orderService, ingestion, transactionManager, 24, 100, 5);
+    }
+
+    @Test
+    void submit_noKey_alwaysRunsTheWrite() {
+        // Arrange
+        AtomicInteger writes = new AtomicInteger();
+
+        // Act
+        service.submit("user:5", null, () -> { writes.incrementAndGet(); return order; });
+        service.submit("user:5", null, () -> { writes.incrementAndGet(); return order; });
+
+        // Assert
+        assertEquals(2, writes.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void submit_sameKeyTwice_writesOnceAndReturnsOriginal() {
+        // Arrange
+        when(repository.claim(eq("user:5:abc"), any())).thenReturn(1);
+        AtomicInteger writes = new AtomicInteger();
+
+        // Act
+        CustomerOrdersDTO first = service.submit("user:5", "abc", () -> { writes.incrementAndGet(); return order; });
+        CustomerOrdersDTO second = service.submit("user:5", "abc", () -> { writes.incrementAndGet(); return order; });
+
+        // Assert: the key is claimed and stored with the order, and the duplicate never reaches the write path
+        assertEquals(1, writes.get());
+        assertSame(first, second);
+        verify(repository, times(1)).claim(eq("user:5:abc"), any());
+        verify(repository, times(1)).attachOrder("user:5:abc", 7, 5L);
+    }
+
+    @Test
+    void submit_sameKeyDifferentScope_isSeparate() {
+        // Arrange
+        when(repository.claim(any(), any())).thenReturn(1);
+        AtomicInteger writes = new AtomicInteger();
+
+        // Act
+        service.submit("user:5", "abc", () -> { writes.incrementAndGet(); return order; });
+        service.submit("user:6", "abc", () -> { writes.incrementAndGet(); return order; });
+
+        // Assert
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    void submit_concurrentDuplicate_waitsForFirstResult() throws Exception {
+        // Arrange: the first write blocks until released
+        when(repository.claim(eq("user:5:abc"), any())).thenReturn(1);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+
+        CompletableFuture<CustomerOrdersDTO> first = CompletableFuture.supplyAsync(() ->
+                service.submit("user:5", "abc", () -> {
+                    writes.incrementAndGet();
+                    firstStarted.countDown();
+                    await(releaseFirst);
+                    return order;
+                }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // Act: the duplicate arrives while the first is in flight
+        CompletableFuture<CustomerOrdersDTO> duplicate = CompletableFuture.supplyAsync(() ->
+                service.submit("user:5", "abc", () -> { writes.incrementAndGet(); return order; }));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone(), "Duplicate should wait for the first request");
+        releaseFirst.countDown();
+
+        // Assert
+        assertSame(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void submit_failedWrite_isNotRemembered() {
+        // Arrange: the failed attempt's claim rolls back with it, so the retry claims the key again
+        when(repository.claim(eq("user:5:abc"), any())).thenReturn(1);
+
+        // Act: first attempt fails, retry with the same key succeeds
+        assertThrows(RuntimeException.class, () ->
+                service.submit("user:5", "abc", () -> { throw new RuntimeException("Product not found with ID: 9"); }));
+        CustomerOrdersDTO retried = service.submit("user:5", "abc", () -> order);
+
+        // Assert
+        assertSame(order, retried);
+    }
+
+    @Test
+    void submit_keyStoredByEarlierRun_replaysWithoutWriting() {
+        // Arrange: e.g. after a restart the key is only in the table, so the claim inserts nothing
+        when(repository.claim(eq("user:5:abc"), any())).thenReturn(0);
+        when(repository.findById("user:5:abc")).thenReturn(Optional.of(new IdempotencyRecord("user:5:abc", 7, 5L, Instant.now())));
+        when(orderService.getDetailsWithItems(7, 5L)).thenReturn(order);
+        AtomicInteger writes = new AtomicInteger();
+
+        // Act
+        CustomerOrdersDTO result = service.submit("user:5", "abc", () -> { writes.incrementAndGet(); return order; });
+
+        // Assert
+        assertSame(order, result);
+        assertEquals(0, writes.get());
+        verify(repository, never()).attachOrder(any(), any(), any());
+    }
+
+    @Test
+    void submit_otherInstanceWonTheKey_returnsItsOrder() {
+        // Arrange: another instance committed the key first, so our claim inserts nothing
+        IdempotencyRecord theirs = new IdempotencyRecord("user:5:abc", 8, 5L, Instant.now());
+        CustomerOrdersDTO theirOrder = new CustomerOrdersDTO(8, 5L, BigDecimal.ONE, LocalDate.now(), "PENDING", List.of(), null);
+        when(repository.claim(eq("user:5:abc"), any())).thenReturn(0);
+        when(repository.findById("user:5:abc")).thenReturn(Optional.of(theirs));
+        when(orderService.getDetailsWithItems(8, 5L)).thenReturn(theirOrder);
+        AtomicInteger writes = new AtomicInteger();
+
+        // Act
+        CustomerOrdersDTO result = service.submit("user:5", "abc", () -> { writes.incrementAndGet(); return order; });
+
+        // Assert
+        assertSame(theirOrder, result);
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void submit_throughGroupCommit_claimsInsideTheBatch() throws Exception {
+        // Arrange: group commit on, so createOnce joins the writer thread's batch transaction.
+        // One key is new, the other is already held elsewhere; neither may disturb the batch.
+        OrderIngestionQueue batched = new OrderIngestionQueue(transactionManager, true, 32, 5, 100, 10);
+        IdempotencyService grouped = new IdempotencyService(repository, orderService, batched, transactionManager, 24, 100, 5);
+        IdempotencyRecord theirs = new IdempotencyRecord("user:5:held", 8, 5L, Instant.now());
+        CustomerOrdersDTO theirOrder = new CustomerOrdersDTO(8, 5L, BigDecimal.ONE, LocalDate.now(), "PENDING", List.of(), null);
+        when(repository.claim(eq("user:5:new"), any())).thenReturn(1);
+        when(repository.claim(eq("user:5:held"), any())).thenReturn(0);
+        when(repository.findById("user:5:held")).thenReturn(Optional.of(theirs));
+        when(orderService.getDetailsWithItems(8, 5L)).thenReturn(theirOrder);
+        AtomicInteger writes = new AtomicInteger();
+
+        try {
+            // Act
+            CustomerOrdersDTO created = grouped.submit("user:5", "new", () -> { writes.incrementAndGet(); return order; });
+            CustomerOrdersDTO replayed = grouped.submit("user:5", "held", () -> { writes.incrementAndGet(); return order; });
+
+            // Assert
+            assertSame(order, created);
+            assertSame(theirOrder, replayed);
+            assertEquals(1, writes.get());
+            verify(repository).attachOrder("user:5:new", 7, 5L);
+            verify(repository, never()).attachOrder(eq("user:5:held"), any(), any());
+        } finally {
+            batched.shutdown();
+        }
+    }
+
+    @Test
+    void submit_keyTooLong_badRequest() {
+        assertThrows(ResponseStatusException.class, () ->
+                service.submit("user:5", "x".repeat(256), () -> order));
+    }
+
+    @Test
+    void submit_longGuestEmailWithMaxLengthKey_badRequest() {
+        // Arrange: the key alone is allowed, but "<scope>:<key>" would not fit the key column
+        String scope = "guest:" + "a".repeat(190) + "@example.com";
+        String key = "k".repeat(255);
+        AtomicInteger writes = new AtomicInteger();
+
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                service.submit(scope, key, () -> { writes.incrementAndGet(); return order; }));
+
+        // Assert
+        assertEquals(400, exception.getStatusCode().value());
+        assertEquals(0, writes.get());
+        verifyNoInteractions(repository);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
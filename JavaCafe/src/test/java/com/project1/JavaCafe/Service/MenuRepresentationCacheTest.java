@@ -0,0 +1,137 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.MenuProductsDTO;
+import com.project1.JavaCafe.Service.MenuRepresentationCache.CachedRepresentation;
+import com.project1.JavaCafe.Service.ProductsService.MenuSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuRepresentationCacheTest {
+
+    @Mock
+    private ProductsService productsService;
+
+    private MenuRepresentationCache cache;
+
+    private final List<MenuProductsDTO> menu = List.of(
+            new MenuProductsDTO(1L, "COFFEE", "Espresso", new BigDecimal("3.00"), "IN_STOCK")
+    );
+
+    @BeforeEach
+    void setUp() {
+        cache = new MenuRepresentationCache(productsService, JsonMapper.builder().build());
+    }
+
+    @Test
+    void get_sameVersion_serializesOnlyOnce() {
+        // Arrange
+        when(productsService.getMenuSnapshot()).thenReturn(new MenuSnapshot(1, Instant.now(), menu, CategoryIndex.of(List.of())));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        CachedRepresentation first = cache.get("menu", () -> { loads.incrementAndGet(); return menu; });
+        CachedRepresentation second = cache.get("menu", () -> { loads.incrementAndGet(); return menu; });
+
+        // Assert: the loader only runs on the first call and the same bytes are reused
+        assertEquals(1, loads.get(), "Loader should only run once per snapshot version");
+        assertSame(first, second, "Second call should return the cached representation");
+        assertTrue(new String(first.json()).contains("Espresso"), "JSON body should contain the product");
+    }
+
+    @Test
+    void get_newVersion_reserializesWithNewEtag() {
+        // Arrange
+        when(productsService.getMenuSnapshot())
+                .thenReturn(new MenuSnapshot(1, Instant.now(), menu, CategoryIndex.of(List.of())))
+                .thenReturn(new MenuSnapshot(2, Instant.now(), menu, CategoryIndex.of(List.of())));
+
+        // Act
+        CachedRepresentation first = cache.get("menu", () -> menu);
+        CachedRepresentation second = cache.get("menu", () -> menu);
+
+        // Assert
+        assertEquals(2, second.version(), "Representation should follow the snapshot version");
+        assertNotEquals(first.etag(), second.etag(), "A new version must produce a new ETag");
+    }
+
+    @Test
+    void get_emptyCollection_isNotCached() {
+        // Arrange
+        when(productsService.getMenuSnapshot()).thenReturn(new MenuSnapshot(1, Instant.now(), menu, CategoryIndex.of(List.of())));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("cart:NOPE", () -> { loads.incrementAndGet(); return Collections.emptyList(); });
+        CachedRepresentation result = cache.get("cart:NOPE", () -> { loads.incrementAndGet(); return Collections.emptyList(); });
+
+        // Assert
+        assertTrue(result.empty(), "Empty listings should be flagged");
+        assertEquals(2, loads.get(), "Empty listings should not be kept in the cache");
+    }
+
+    @Test
+    void get_emptyMap_isNotCached() {
+        // Arrange
+        when(productsService.getMenuSnapshot()).thenReturn(new MenuSnapshot(1, Instant.now(), menu, CategoryIndex.of(List.of())));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("descriptions:NOPE", () -> { loads.incrementAndGet(); return Collections.emptyMap(); });
+        CachedRepresentation result = cache.get("descriptions:NOPE", () -> { loads.incrementAndGet(); return Collections.emptyMap(); });
+
+        // Assert
+        assertTrue(result.empty(), "Empty maps should be flagged");
+        assertEquals(2, loads.get(), "Empty maps should not be kept in the cache");
+    }
+
+    @Test
+    void toResponse_gzipAccepted_returnsGzippedBodyAndDistinctEtag() throws IOException {
+        // Arrange
+        when(productsService.getMenuSnapshot()).thenReturn(new MenuSnapshot(1, Instant.now(), menu, CategoryIndex.of(List.of())));
+        CachedRepresentation representation = cache.get("menu", () -> menu);
+
+        // Act
+        ResponseEntity<byte[]> plain = cache.toResponse(representation, null);
+        ResponseEntity<byte[]> gzipped = cache.toResponse(representation, "gzip, deflate");
+
+        // Assert
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(plain.getHeaders().getETag(), gzipped.getHeaders().getETag());
+        assertEquals("1", plain.getHeaders().getFirst(MenuRepresentationCache.MENU_VERSION_HEADER));
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes(), "Gzipped body should inflate to the plain JSON");
+        }
+    }
+
+    @Test
+    void acceptsGzip_respectsQValues() {
+        assertTrue(MenuRepresentationCache.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(MenuRepresentationCache.acceptsGzip("br, *"));
+        assertFalse(MenuRepresentationCache.acceptsGzip("gzip;q=0, deflate"), "q=0 means 'not acceptable'");
+        assertFalse(MenuRepresentationCache.acceptsGzip("gzip; q=0.000, *"), "An explicit refusal beats the wildcard");
+        assertFalse(MenuRepresentationCache.acceptsGzip("*;q=0"));
+        assertFalse(MenuRepresentationCache.acceptsGzip("identity, notgzip"));
+        assertFalse(MenuRepresentationCache.acceptsGzip(null));
+    }
+}
@@ -0,0 +1,111 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.OptimisticLockStatsDTO;
+import com.project1.JavaCafe.Model.Products;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockRetryTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OptimisticLockRetry lockRetry;
+
+    @BeforeEach
+    void setUp() {
+        // 3 attempts, backoff capped at 2ms so the tests stay fast
+        lockRetry = new OptimisticLockRetry(transactionManager, 3, 1, 2);
+    }
+
+    @Test
+    void inTransaction_conflictThenSuccess_retriesInFreshTransaction() {
+        // Arrange: the first attempt loses to a concurrent writer
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = lockRetry.inTransaction("products.seed", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Products.class, 1L);
+            }
+            return "saved";
+        });
+
+        // Assert
+        assertEquals("saved", result);
+        assertEquals(2, calls.get());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(1)).rollback(any());
+
+        OptimisticLockStatsDTO stats = lockRetry.stats().get(0);
+        assertEquals(2, stats.attempts());
+        assertEquals(1, stats.conflicts());
+        assertEquals(1, stats.retries());
+        assertEquals(0, stats.exhausted());
+    }
+
+    @Test
+    void inTransaction_conflictEveryTime_givesUpAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert: the conflict surfaces once the attempts run out
+        assertThrows(OptimisticLockingFailureException.class, () -> lockRetry.inTransaction("products.seed", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Products.class, 1L);
+        }));
+
+        assertEquals(3, calls.get(), "Should stop at maxAttempts");
+        OptimisticLockStatsDTO stats = lockRetry.stats().get(0);
+        assertEquals(3, stats.conflicts());
+        assertEquals(2, stats.retries());
+        assertEquals(1, stats.exhausted());
+    }
+
+    @Test
+    void inTransaction_otherFailure_isNotRetried() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> lockRetry.inTransaction("products.seed", () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("bad data");
+        }));
+        assertEquals(1, calls.get());
+        assertEquals(0, lockRetry.stats().get(0).conflicts());
+    }
+
+    @Test
+    void once_conflict_becomes409AndIsNotRetried() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> lockRetry.once("products.update", "Product 1 was changed by someone else", () -> {
+                    calls.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException(Products.class, 1L);
+                }));
+
+        // Assert: the user sees the conflict, and no transaction of our own was opened
+        assertEquals(409, exception.getStatusCode().value());
+        assertEquals(1, calls.get());
+        verifyNoInteractions(transactionManager);
+        assertEquals(1, lockRetry.stats().get(0).conflicts());
+    }
+}
@@ -0,0 +1,171 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersSummaryDTO;
+import com.project1.JavaCafe.DTO.OrderEventStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventBroadcasterTest {
+
+    // Records the event names that would have been written to the socket
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch failed = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private final boolean broken;
+
+        RecordingEmitter(CountDownLatch release, boolean broken) {
+            this.release = release;
+            this.broken = broken;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String frame = builder.build().iterator().next().getData().toString();
+            sent.add(frame.substring("event:".length(), frame.indexOf('\n')));
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed.countDown();
+            super.completeWithError(ex);
+        }
+
+        String next() throws InterruptedException {
+            return sent.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private RecordingEmitter emitter;
+    private OrderEventBroadcaster broadcaster;
+
+    private OrderEventBroadcaster broadcaster(int bufferSize, CountDownLatch release, boolean broken) {
+        broadcaster = new OrderEventBroadcaster(bufferSize, 2, 30, 3600) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                emitter = new RecordingEmitter(release, broken);
+                return emitter;
+            }
+        };
+        return broadcaster;
+    }
+
+    private static CustomerOrdersSummaryDTO order(int orderId, String status) {
+        return new CustomerOrdersSummaryDTO(orderId, 1L, new BigDecimal("6.00"), LocalDate.now(), status);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_sendsSnapshotThenMatchingEventsOnly() throws InterruptedException {
+        // Arrange: a customer watching order 1
+        OrderEventBroadcaster events = broadcaster(10, new CountDownLatch(0), false);
+        events.subscribe(event -> event.order().orderId() == 1, () -> List.of(order(1, "PENDING")));
+
+        // Act
+        events.onOrderChanged(new OrderChangedEvent(OrderChangedEvent.CREATED, null, order(2, "PENDING")));
+        events.onOrderChanged(new OrderChangedEvent(OrderChangedEvent.STATUS_CHANGED, "PENDING", order(1, "PICKUP")));
+
+        // Assert: the current state first, then only its own order's change
+        assertEquals(OrderChangedEvent.SNAPSHOT, emitter.next());
+        assertEquals(OrderChangedEvent.STATUS_CHANGED, emitter.next());
+        assertNull(emitter.sent.poll(), "Other orders' events should be filtered out");
+    }
+
+    @Test
+    void onOrderChanged_slowSubscriber_dropsOldestEvents() throws InterruptedException {
+        // Arrange: the first send blocks until released, buffer holds 2 events
+        CountDownLatch release = new CountDownLatch(1);
+        OrderEventBroadcaster events = broadcaster(2, release, false);
+        events.subscribe(event -> true, () -> List.of(order(1, "PENDING")));
+
+        // Act: wait until the snapshot is in flight, then publish 3 more
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        events.onOrderChanged(new OrderChangedEvent(OrderChangedEvent.CREATED, null, order(2, "PENDING")));
+        events.onOrderChanged(new OrderChangedEvent(OrderChangedEvent.STATUS_CHANGED, "PENDING", order(2, "PICKUP")));
+        events.onOrderChanged(new OrderChangedEvent(OrderChangedEvent.STATUS_CHANGED, "PICKUP", order(2, "COMPLETED")));
+        release.countDown();
+
+        // Assert: the snapshot plus the 2 newest events arrive, the oldest was dropped
+        assertEquals(OrderChangedEvent.SNAPSHOT, emitter.next());
+        assertEquals(OrderChangedEvent.STATUS_CHANGED, emitter.next());
+        assertEquals(OrderChangedEvent.STATUS_CHANGED, emitter.next());
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, events.stats().dropped());
+    }
+
+    @Test
+    void onOrderChanged_brokenConnection_removesSubscriber() throws InterruptedException {
+        // Arrange
+        OrderEventBroadcaster events = broadcaster(10, new CountDownLatch(0), true);
+        events.subscribe(event -> true, List::of);
+        assertEquals(1, events.stats().subscribers());
+
+        // Act
+        events.onOrderChanged(new OrderChangedEvent(OrderChangedEvent.CREATED, null, order(1, "PENDING")));
+
+        // Assert: the failed send forgets the client and closes its stream
+        assertTrue(emitter.failed.await(5, TimeUnit.SECONDS), "The emitter should be completed with the send error");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.stats().subscribers() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        OrderEventStatsDTO stats = events.stats();
+        assertEquals(0, stats.subscribers());
+        assertEquals(0, stats.delivered());
+    }
+
+    @Test
+    void subscribe_snapshotFails_dropsSubscriber() {
+        // Arrange
+        OrderEventBroadcaster events = broadcaster(10, new CountDownLatch(0), false);
+
+        // Act: e.g. the order doesn't exist
+        assertThrows(ResponseStatusException.class, () -> events.subscribe(event -> true, () -> {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }));
+
+        // Assert: no stream is left registered for it
+        assertEquals(0, events.stats().subscribers());
+    }
+
+    @Test
+    void subscribe_tooManySubscribers_rejected() {
+        // Arrange: at most 2 streams
+        OrderEventBroadcaster events = broadcaster(10, new CountDownLatch(0), false);
+        events.subscribe(event -> true, List::of);
+        events.subscribe(event -> true, List::of);
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> events.subscribe(event -> true, List::of));
+        assertEquals(503, exception.getStatusCode().value());
+    }
+}
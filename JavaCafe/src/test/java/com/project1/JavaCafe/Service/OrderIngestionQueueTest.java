@@ -0,0 +1,174 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.CustomerOrdersDTO;
+import com.project1.JavaCafe.DTO.OrderIngestionStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIngestionQueueTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIngestionQueue queue;
+
+    // Enough caller threads that every submit can be waiting at once
+    private final ExecutorService callers = Executors.newFixedThreadPool(10);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void submit_disabled_runsInlineWithoutExtraTransaction() {
+        // Arrange
+        queue = new OrderIngestionQueue(transactionManager, false, 32, 5, 10, 10);
+        Thread caller = Thread.currentThread();
+
+        // Act
+        CustomerOrdersDTO result = queue.submit(() -> {
+            assertSame(caller, Thread.currentThread(), "Write should run on the caller's thread");
+            return order(1);
+        });
+
+        // Assert: the service's own @Transactional is the only transaction
+        assertEquals(1, result.orderId());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void submit_enabled_groupsConcurrentOrdersIntoFewerCommits() throws Exception {
+        // Arrange: a long wait window so all 10 callers land in the same batch
+        queue = new OrderIngestionQueue(transactionManager, true, 32, 200, 100, 10);
+
+        // Act
+        List<CompletableFuture<CustomerOrdersDTO>> results = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            int orderId = i;
+            results.add(CompletableFuture.supplyAsync(() -> queue.submit(() -> order(orderId)), callers));
+        }
+
+        // Assert: every caller gets its own order back, from far fewer transactions than orders
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).get(5, TimeUnit.SECONDS).orderId());
+        }
+        OrderIngestionStatsDTO stats = queue.stats();
+        assertEquals(10, stats.orders());
+        assertTrue(stats.batches() < 10, "Expected grouped commits, got " + stats.batches() + " batches");
+        verify(transactionManager, times((int) stats.batches())).getTransaction(any(TransactionDefinition.class));
+    }
+
+    @Test
+    void submit_enabled_badOrderOnlyFailsItself() throws Exception {
+        // Arrange
+        queue = new OrderIngestionQueue(transactionManager, true, 32, 200, 100, 10);
+
+        // Act: one bad order in the middle of a batch
+        CompletableFuture<CustomerOrdersDTO> good1 = CompletableFuture.supplyAsync(() -> queue.submit(() -> order(1)), callers);
+        CompletableFuture<CustomerOrdersDTO> bad = CompletableFuture.supplyAsync(() -> queue.submit(() -> {
+            throw new RuntimeException("Product not found with ID: 999");
+        }), callers);
+        CompletableFuture<CustomerOrdersDTO> good2 = CompletableFuture.supplyAsync(() -> queue.submit(() -> order(2)), callers);
+
+        // Assert: the batch is replayed one order per transaction, so only the bad one fails
+        assertEquals(1, good1.get(5, TimeUnit.SECONDS).orderId());
+        assertEquals(2, good2.get(5, TimeUnit.SECONDS).orderId());
+        Exception failure = assertThrows(Exception.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause().getMessage().contains("Product not found with ID: 999"));
+        assertTrue(queue.stats().fallbacks() >= 1);
+    }
+
+    @Test
+    void submit_queueFull_rejectsImmediately() throws Exception {
+        // Arrange: capacity 1, and the writer is stuck on the first order
+        queue = new OrderIngestionQueue(transactionManager, true, 1, 1, 1, 10);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<CustomerOrdersDTO> first = CompletableFuture.supplyAsync(() -> queue.submit(() -> {
+            writerBusy.countDown();
+            awaitQuietly(release);
+            return order(1);
+        }), callers);
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        CompletableFuture<CustomerOrdersDTO> queued = CompletableFuture.supplyAsync(() -> queue.submit(() -> order(2)), callers);
+        while (queue.stats().queueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(() -> order(3)));
+        assertEquals(1, queue.stats().rejected());
+
+        release.countDown();
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).orderId());
+        assertEquals(2, queued.get(5, TimeUnit.SECONDS).orderId());
+    }
+
+    @Test
+    void submit_writerStuck_timesOutAndSkipsWithdrawnOrder() throws Exception {
+        // Arrange: one order per batch, callers wait 1 second, and the writer is stuck on the first order
+        queue = new OrderIngestionQueue(transactionManager, true, 1, 1, 10, 1);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean withdrawnWritten = new AtomicBoolean();
+        CompletableFuture<CustomerOrdersDTO> stuck = CompletableFuture.supplyAsync(() -> queue.submit(() -> {
+            writerBusy.countDown();
+            awaitQuietly(release);
+            return order(1);
+        }), callers);
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+
+        // Act: the queued order's caller gives up before the writer reaches it
+        RejectedExecutionException timeout = assertThrows(RejectedExecutionException.class, () -> queue.submit(() -> {
+            withdrawnWritten.set(true);
+            return order(2);
+        }));
+        Exception stuckFailure = assertThrows(Exception.class, () -> stuck.get(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        // Assert: both callers are turned away, and the withdrawn order is never written
+        assertInstanceOf(RejectedExecutionException.class, stuckFailure.getCause());
+        assertTrue(timeout.getMessage().contains("did not finish in time"));
+        assertEquals(3, queue.submit(() -> order(3)).orderId());
+        assertFalse(withdrawnWritten.get(), "A withdrawn order should be skipped by the writer");
+        assertEquals(2, queue.stats().timedOut());
+    }
+
+    private static CustomerOrdersDTO order(int orderId) {
+        return new CustomerOrdersDTO(orderId, 1L, BigDecimal.ONE, LocalDate.now(), "PENDING", List.of(), null);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
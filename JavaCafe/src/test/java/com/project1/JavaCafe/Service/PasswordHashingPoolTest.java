@@ -0,0 +1,77 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.PasswordPoolStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingPoolTest {
+
+    private PasswordHashingPool pool;
+
+    @BeforeEach
+    void setUp() {
+        // One worker, room for one waiting task
+        pool = new PasswordHashingPool(1, 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void submit_returnsWorkResult() {
+        // Act
+        String result = pool.submit(() -> "hashed").join();
+
+        // Assert
+        assertEquals("hashed", result);
+        assertEquals(1, pool.stats().completed());
+    }
+
+    @Test
+    void submit_queueFull_rejectsImmediately() throws InterruptedException {
+        // Arrange: occupy the worker and fill the queue
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = pool.submit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return true;
+        });
+        started.await();
+        CompletableFuture<Boolean> queued = pool.submit(() -> true);
+
+        // Act & Assert: the third request is turned away without waiting
+        assertThrows(RejectedExecutionException.class, () -> pool.submit(() -> true));
+
+        release.countDown();
+        assertTrue(running.join());
+        assertTrue(queued.join());
+
+        PasswordPoolStatsDTO stats = pool.stats();
+        assertEquals(2, stats.completed(), "Both admitted tasks should finish");
+        assertEquals(1, stats.rejected(), "The overflow task should be counted as rejected");
+        assertTrue(stats.maxQueueWaitMillis() > 0, "The queued task should have recorded some wait time");
+    }
+
+    @Test
+    void getRetryAfterSeconds_returnsConfiguredValue() {
+        assertEquals(3, pool.getRetryAfterSeconds());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
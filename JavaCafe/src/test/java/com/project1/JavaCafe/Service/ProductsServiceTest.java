@@ -6,17 +6,23 @@ import com.project1.JavaCafe.Repository.ProductsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +35,14 @@ class ProductsServiceTest {
     @Mock
     private ProductsRepository repository;
 
+    // Real retry/conflict handling over a no-op transaction manager
+    @Spy
+    private OptimisticLockRetry lockRetry = new OptimisticLockRetry(mock(PlatformTransactionManager.class), 3, 0, 0);
+
+    // Catalog file contents are supplied per test
+    @Mock
+    private CatalogSource catalogSource;
+
     // Inject the mock into the Service class
     @InjectMocks
     private ProductsService productsService;
@@ -77,7 +91,8 @@ class ProductsServiceTest {
                 NAME,
                 PRICE,
                 DESCRIPTION,
-                AVAILABILITY
+                AVAILABILITY,
+                null
         );
     }
 
@@ -130,19 +145,52 @@ class ProductsServiceTest {
     @Test
     void findAllOrFilterByCategory_categoryIsProvided_returnsFilteredProducts() {
         // ARRANGE
-        List<Products> coffeeProducts = Collections.singletonList(espressoProduct);
-        when(repository.findByCategory(CATEGORY_COFFEE)).thenReturn(coffeeProducts);
+        when(repository.findAll()).thenReturn(Arrays.asList(espressoProduct, cookieProduct));
 
         // ACT
         List<ProductsDTO> results = productsService.findAllOrFilterByCategory(CATEGORY_COFFEE);
+        List<ProductsDTO> cookies = productsService.findAllOrFilterByCategory(CATEGORY_COOKIES);
 
         // ASSERT
-        assertFalse(results.isEmpty());
         assertEquals(1, results.size());
         assertEquals(CATEGORY_COFFEE, results.get(0).category());
-        // Verify that findByCategory was called with the correct argument
-        verify(repository, times(1)).findByCategory(CATEGORY_COFFEE);
-        verify(repository, never()).findAll();
+        assertEquals("Chocolate Chip", cookies.get(0).name());
+        assertTrue(productsService.findAllOrFilterByCategory("TEA").isEmpty());
+        // Served from the snapshot's category index: one load, no per-category query
+        verify(repository, times(1)).findAll();
+        verify(repository, never()).findByCategory(anyString());
+    }
+
+    @Test
+    void getCategoryFacets_countsAndPriceRangePerCategory() {
+        // ARRANGE: two coffees, one of them out of stock
+        Products latte = new Products(CATEGORY_COFFEE, "Latte", new BigDecimal("4.75"), "Steamed milk and espresso.", "OUT_OF_STOCK");
+        when(repository.findAll()).thenReturn(Arrays.asList(espressoProduct, latte, cookieProduct));
+
+        // ACT
+        List<CategoryFacetDTO> facets = productsService.getCategoryFacets();
+
+        // ASSERT
+        assertEquals(List.of(
+                new CategoryFacetDTO(CATEGORY_COFFEE, 2, 1, PRICE, new BigDecimal("4.75")),
+                new CategoryFacetDTO(CATEGORY_COOKIES, 1, 1, new BigDecimal("2.50"), new BigDecimal("2.50"))
+        ), facets);
+    }
+
+    @Test
+    void findAllOrFilterByCategory_afterProductWrite_indexFollowsSnapshot() {
+        // ARRANGE: the espresso moves to a new category
+        when(repository.findAll()).thenReturn(List.of(espressoProduct));
+        assertEquals(1, productsService.findAllOrFilterByCategory(CATEGORY_COFFEE).size());
+        when(repository.findById(PRODUCT_ID)).thenReturn(Optional.of(espressoProduct));
+        when(repository.saveAndFlush(espressoProduct)).thenReturn(espressoProduct);
+
+        // ACT
+        productsService.update(PRODUCT_ID, new ProductsDTO(null, "ESPRESSO_BAR", null, null, null, null, null));
+
+        // ASSERT
+        assertTrue(productsService.findAllOrFilterByCategory(CATEGORY_COFFEE).isEmpty());
+        assertEquals(1, productsService.findAllOrFilterByCategory("ESPRESSO_BAR").size());
     }
 
     @Test
@@ -173,7 +221,43 @@ class ProductsServiceTest {
         assertEquals(2, results.size());
         // Check a field specific to MenuProductsDTO (e.g., description should be missing/null, but we check name)
         assertEquals(espressoProduct.getName(), results.get(0).name());
-        verify(repository, times(2)).findAll(); // NOTE: Your service calls findAll twice.
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void getAllMenuProducts_repeatedCalls_servedFromSnapshot() {
+        // ARRANGE
+        when(repository.findAll()).thenReturn(Arrays.asList(espressoProduct, cookieProduct));
+
+        // ACT
+        productsService.getAllMenuProducts();
+        productsService.getAllMenuProducts();
+        List<MenuProductsDTO> results = productsService.getAllMenuProducts();
+
+        // ASSERT
+        assertEquals(2, results.size());
+        // Only the first call loads from the database
+        verify(repository, times(1)).findAll();
+        assertThrows(UnsupportedOperationException.class, () -> results.add(null));
+    }
+
+    @Test
+    void create_afterSnapshotLoaded_rebuildsSnapshotAndBumpsVersion() {
+        // ARRANGE
+        when(repository.findAll())
+                .thenReturn(Collections.singletonList(cookieProduct))
+                .thenReturn(Arrays.asList(cookieProduct, espressoProduct));
+        when(repository.save(any(Products.class))).thenReturn(espressoProduct);
+        long initialVersion = productsService.getMenuSnapshot().version();
+
+        // ACT
+        productsService.create(new ProductsWOIDDTO(CATEGORY_COFFEE, NAME, PRICE, DESCRIPTION, AVAILABILITY));
+
+        // ASSERT
+        ProductsService.MenuSnapshot snapshot = productsService.getMenuSnapshot();
+        assertEquals(initialVersion + 1, snapshot.version());
+        assertEquals(2, snapshot.menuProducts().size());
+        verify(repository, times(2)).findAll();
     }
 
 
@@ -206,42 +290,168 @@ class ProductsServiceTest {
         verify(repository, times(1)).findById(PRODUCT_ID);
     }
 
+    @Test
+    void getProductDescriptions_servedFromSnapshot_skipsUnknownIds() {
+        // ARRANGE
+        when(repository.findAll()).thenReturn(Arrays.asList(espressoProduct, cookieProduct));
 
+        // ACT
+        Map<Long, String> descriptions = productsService.getProductDescriptions(List.of(2L, 99L, PRODUCT_ID));
 
+        // ASSERT: request order, unknown ID left out, no per-product lookups
+        assertEquals(List.of(2L, PRODUCT_ID), List.copyOf(descriptions.keySet()));
+        assertEquals(DESCRIPTION, descriptions.get(PRODUCT_ID));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void getProductDescriptions_tooManyIds_throwsBadRequest() {
+        // ARRANGE
+        List<Long> ids = LongStream.rangeClosed(1, ProductsService.MAX_DESCRIPTION_IDS + 1).boxed().toList();
+
+        // ACT & ASSERT
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> productsService.getProductDescriptions(ids));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getCategoryDescriptions_returnsWholeCategory() {
+        // ARRANGE
+        when(repository.findAll()).thenReturn(Arrays.asList(espressoProduct, cookieProduct));
+
+        // ACT
+        Map<Long, String> descriptions = productsService.getCategoryDescriptions(CATEGORY_COOKIES);
+
+        // ASSERT
+        assertEquals(Map.of(2L, "Gooey classic cookie."), descriptions);
+        assertTrue(productsService.getCategoryDescriptions("TEA").isEmpty());
+    }
+
+
+
+
+    // ------------------------------------------------------------------
+    // UPDATE Test Methods (update)
+    // ------------------------------------------------------------------
+
+    @Test
+    void update_currentVersion_savesAndReturnsNewVersion() {
+        // ARRANGE
+        espressoProduct.setVersion(3L);
+        ProductsDTO edit = new ProductsDTO(PRODUCT_ID, null, null, new BigDecimal("3.25"), null, null, 3L);
+        when(repository.findById(PRODUCT_ID)).thenReturn(Optional.of(espressoProduct));
+        when(repository.saveAndFlush(espressoProduct)).thenAnswer(invocation -> {
+            espressoProduct.setVersion(4L);
+            return espressoProduct;
+        });
+        when(repository.findAll()).thenReturn(List.of(espressoProduct));
+
+        // ACT
+        ProductsDTO result = productsService.update(PRODUCT_ID, edit);
+
+        // ASSERT
+        assertEquals(new BigDecimal("3.25"), result.basePrice());
+        assertEquals(4L, result.version(), "The response should carry the new version for the next edit");
+    }
+
+    @Test
+    void update_staleVersion_throwsConflictWithoutSaving() {
+        // ARRANGE: the client read version 2, someone else has since saved version 3
+        espressoProduct.setVersion(3L);
+        ProductsDTO edit = new ProductsDTO(PRODUCT_ID, null, null, new BigDecimal("3.25"), null, null, 2L);
+        when(repository.findById(PRODUCT_ID)).thenReturn(Optional.of(espressoProduct));
+
+        // ACT & ASSERT
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> productsService.update(PRODUCT_ID, edit));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(repository, never()).saveAndFlush(any(Products.class));
+    }
+
+    @Test
+    void update_concurrentEditAtFlush_throwsConflict() {
+        // ARRANGE: no version sent, but another edit lands between our read and our write
+        ProductsDTO edit = new ProductsDTO(PRODUCT_ID, null, "Ristretto", null, null, null, null);
+        when(repository.findById(PRODUCT_ID)).thenReturn(Optional.of(espressoProduct));
+        when(repository.saveAndFlush(espressoProduct))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Products.class, PRODUCT_ID));
+
+        // ACT & ASSERT
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> productsService.update(PRODUCT_ID, edit));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals(1, lockRetry.stats().get(0).conflicts());
+    }
 
     // ------------------------------------------------------------------
-    // 4. Initialization Test Methods (initializeTable)
+    // 4. Initialization Test Methods (initializeTable / syncCatalog)
     // ------------------------------------------------------------------
 
     @Test
-    void initializeTable_tableIsEmpty_initializesData() {
+    void initializeTable_tableIsEmpty_insertsWholeCatalogInOneCall() {
         // ARRANGE
-        // Mock the count() method to indicate the table is empty
-        when(repository.count()).thenReturn(0L);
+        when(catalogSource.load()).thenReturn(List.of(
+                new ProductsWOIDDTO(CATEGORY_COFFEE, NAME, PRICE, DESCRIPTION, AVAILABILITY),
+                new ProductsWOIDDTO(CATEGORY_COOKIES, "Chocolate Chip", new BigDecimal("2.50"), "Gooey classic cookie.", AVAILABILITY)
+        ));
+        when(repository.findAll()).thenReturn(Collections.emptyList());
 
         // ACT
-        productsService.initializeTable();
+        CatalogSyncResultDTO result = productsService.initializeTable();
 
         // ASSERT
-        // Verify that repository.count() was checked
-        verify(repository, times(1)).count();
-        // Verify that save was called multiple times (for all 10 products)
-        verify(repository, times(10)).save(any(Products.class));
+        assertEquals(2, result.created());
+        assertEquals(0, result.updated());
+        // Both products go to the repository together (one batch), never one save per product
+        ArgumentCaptor<List<Products>> created = ArgumentCaptor.captor();
+        verify(repository, times(1)).saveAll(created.capture());
+        assertEquals(2, created.getValue().size());
+        verify(repository, never()).save(any(Products.class));
     }
 
     @Test
-    void initializeTable_tableIsNotEmpty_doesNothing() {
+    void initializeTable_catalogUnchanged_writesNothing() {
         // ARRANGE
-        // Mock the count() method to indicate the table already has data
-        when(repository.count()).thenReturn(5L);
+        when(catalogSource.load()).thenReturn(List.of(
+                new ProductsWOIDDTO(CATEGORY_COFFEE, NAME, new BigDecimal("3.0"), DESCRIPTION, AVAILABILITY)
+        ));
+        when(repository.findAll()).thenReturn(List.of(espressoProduct));
 
         // ACT
-        productsService.initializeTable();
+        CatalogSyncResultDTO result = productsService.initializeTable();
 
         // ASSERT
-        // Verify that repository.count() was checked
-        verify(repository, times(1)).count();
-        // Verify that save was NOT called
+        // Same price at a different scale is not a change
+        assertEquals(1, result.unchanged());
+        assertEquals(PRICE, espressoProduct.getBasePrice());
+        verify(repository, never()).saveAll(any());
         verify(repository, never()).save(any(Products.class));
     }
+
+    @Test
+    void syncCatalog_changedEntry_updatesLoadedProductOnly() {
+        // ARRANGE: a new price for the espresso, a new cookie
+        when(repository.findAll()).thenReturn(List.of(espressoProduct));
+        List<ProductsWOIDDTO> catalog = List.of(
+                new ProductsWOIDDTO(CATEGORY_COFFEE, NAME, new BigDecimal("3.25"), DESCRIPTION, AVAILABILITY),
+                new ProductsWOIDDTO(CATEGORY_COOKIES, "Chocolate Chip", new BigDecimal("2.50"), "Gooey classic cookie.", AVAILABILITY)
+        );
+
+        // ACT
+        CatalogSyncResultDTO result = productsService.syncCatalog(catalog);
+
+        // ASSERT
+        assertEquals(1, result.created());
+        assertEquals(1, result.updated());
+        assertEquals(0, result.unchanged());
+        // The loaded entity is changed in place; the UPDATE is flushed on commit
+        assertEquals(new BigDecimal("3.25"), espressoProduct.getBasePrice());
+        ArgumentCaptor<List<Products>> created = ArgumentCaptor.captor();
+        verify(repository).saveAll(created.capture());
+        assertEquals("Chocolate Chip", created.getValue().get(0).getName());
+        // One keyed load for the diff, one for the refreshed menu snapshot
+        verify(repository, times(2)).findAll();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.SalesAggregationDTO;
+import com.project1.JavaCafe.DTO.SalesSummaryDTO;
+import com.project1.JavaCafe.Model.SalesSummary;
+import com.project1.JavaCafe.Repository.SalesSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesSummaryServiceTest {
+
+    @Mock
+    private SalesSummaryRepository repository;
+
+    private SalesSummaryService service;
+
+    private final LocalDate today = LocalDate.of(2025, 11, 3);
+
+    @BeforeEach
+    void setUp() {
+        service = new SalesSummaryService(repository);
+    }
+
+    @Test
+    void recordOrder_dayExists_incrementsInPlace() {
+        // Arrange
+        when(repository.addToDay(today, 1, 3)).thenReturn(1);
+
+        // Act
+        service.recordOrder(today, 3);
+
+        // Assert: one atomic UPDATE, no insert
+        verify(repository, times(1)).addToDay(today, 1, 3);
+        verify(repository, never()).insertDayIfAbsent(any());
+    }
+
+    @Test
+    void recordOrder_firstOrderOfDay_createsRowThenIncrements() {
+        // Arrange: no row for today yet (the insert is a no-op if a concurrent order created it first)
+        when(repository.addToDay(today, 1, 3)).thenReturn(0, 1);
+
+        // Act
+        service.recordOrder(today, 3);
+
+        // Assert: the empty row is created in the same transaction, then the same increment is applied to it
+        verify(repository, times(1)).insertDayIfAbsent(today);
+        verify(repository, times(2)).addToDay(today, 1, 3);
+    }
+
+    @Test
+    void moveOrder_differentDays_movesCounts() {
+        // Arrange
+        LocalDate yesterday = today.minusDays(1);
+        when(repository.addToDay(any(), anyInt(), anyInt())).thenReturn(1);
+
+        // Act
+        service.moveOrder(today, yesterday, 2);
+
+        // Assert
+        verify(repository, times(1)).addToDay(today, -1, -2);
+        verify(repository, times(1)).addToDay(yesterday, 1, 2);
+    }
+
+    @Test
+    void moveOrder_sameDay_doesNothing() {
+        // Act
+        service.moveOrder(today, today, 2);
+
+        // Assert
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getDailySummaries_mapsRowsToDtos() {
+        // Arrange
+        SalesSummary row = new SalesSummary(today, 4, 9);
+        row.setSummaryId(7L);
+        when(repository.findBySalesDateBetweenOrderBySalesDate(today, today)).thenReturn(List.of(row));
+
+        // Act
+        List<SalesSummaryDTO> result = service.getDailySummaries(today, today);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(new SalesSummaryDTO(7L, today.atStartOfDay(), 4, 9), result.get(0));
+    }
+
+    @Test
+    void getAllTimeAggregates_readsSummaryTable() {
+        // Arrange
+        when(repository.calculateAllTimeAggregates()).thenReturn(new SalesAggregationDTO(10, 25));
+
+        // Act
+        SalesAggregationDTO result = service.getAllTimeAggregates();
+
+        // Assert
+        assertEquals(10, result.totalOrders());
+        assertEquals(25, result.totalItemsSold());
+    }
+}
@@ -0,0 +1,89 @@
+package com.project1.JavaCafe.Service;
+
+import com.project1.JavaCafe.DTO.StartupTaskDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StartupSeedingTest {
+
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final StartupSeeding seeding = new StartupSeeding(events);
+
+    @AfterEach
+    void tearDown() {
+        seeding.shutdown();
+    }
+
+    @Test
+    void start_runsTasksConcurrently_readyOnlyWhenAllDone() throws Exception {
+        // Arrange: each task waits for the other to have started, so they can only finish if run side by side
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable work = () -> {
+            bothStarted.countDown();
+            try {
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // Act
+        CompletableFuture<Void> done = seeding.start(List.of(
+                new StartupSeeding.Task("catalog", work),
+                new StartupSeeding.Task("admin-user", work)));
+
+        // Assert: not ready while the tasks are running
+        assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+        assertFalse(seeding.isReady());
+        assertEquals(Status.DOWN, seeding.health().getStatus());
+
+        release.countDown();
+        done.get(5, TimeUnit.SECONDS);
+
+        assertTrue(seeding.isReady());
+        assertEquals(Status.UP, seeding.health().getStatus());
+        assertEquals(List.of("catalog", "admin-user"), seeding.stats().stream().map(StartupTaskDTO::name).toList());
+        assertTrue(seeding.stats().stream().allMatch(task -> StartupSeeding.DONE.equals(task.status())));
+        verify(events).publishEvent(any(StartupSeedingCompletedEvent.class));
+    }
+
+    @Test
+    void start_taskFails_staysNotReady() throws InterruptedException, TimeoutException {
+        // Act
+        CompletableFuture<Void> done = seeding.start(List.of(
+                new StartupSeeding.Task("catalog", () -> {
+                    throw new IllegalStateException("Duplicate catalog entry");
+                }),
+                new StartupSeeding.Task("admin-user", () -> {})));
+
+        // Assert
+        assertThrows(ExecutionException.class, () -> done.get(5, TimeUnit.SECONDS));
+        assertFalse(seeding.isReady());
+        assertEquals(Status.DOWN, seeding.health().getStatus());
+        StartupTaskDTO catalog = seeding.stats().get(0);
+        assertEquals(StartupSeeding.FAILED, catalog.status());
+        assertTrue(catalog.error().contains("Duplicate catalog entry"));
+        verify(events, never()).publishEvent(any());
+    }
+
+    @Test
+    void health_notStarted_isDown() {
+        assertFalse(seeding.isReady());
+        assertEquals(Status.DOWN, seeding.health().getStatus());
+    }
+}
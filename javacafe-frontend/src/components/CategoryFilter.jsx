@@ -0,0 +1,65 @@
+import { useState, useEffect } from 'react';
+import { getMenuCategories } from '../services/MenuService';
+
+const formatCategoryName = (category) => {
+    if (!category) return 'Other';
+    return category.charAt(0).toUpperCase() + category.slice(1).toLowerCase();
+};
+
+const formatPrice = (price) => `$${parseFloat(price || 0).toFixed(2)}`;
+
+// Category sidebar built from the precomputed facets (one request, counts and price range per category)
+function CategoryFilter({ selectedCategory, onSelect }) {
+    const [facets, setFacets] = useState([]);
+
+    useEffect(() => {
+        getMenuCategories()
+            .then(setFacets)
+            .catch((err) => {
+                console.error('Error fetching categories:', err);
+                setFacets([]);
+            });
+    }, []);
+
+    const totalCount = facets.reduce((sum, facet) => sum + facet.productCount, 0);
+
+    const buttonClass = (active) => `w-full text-left px-4 py-3 rounded-lg transition-colors ${
+        active
+            ? 'bg-amber-600 text-white font-semibold'
+            : 'text-amber-900 hover:bg-amber-100'
+    }`;
+
+    return (
+        <nav className="space-y-2">
+            <button
+                onClick={() => onSelect(null)}
+                className={buttonClass(selectedCategory === null)}
+            >
+                <span className="flex justify-between">
+                    <span>All Categories</span>
+                    {totalCount > 0 && <span className="opacity-75">{totalCount}</span>}
+                </span>
+            </button>
+            {facets.map((facet) => (
+                <button
+                    key={facet.category}
+                    onClick={() => onSelect(facet.category)}
+                    className={buttonClass(selectedCategory === facet.category)}
+                >
+                    <span className="flex justify-between">
+                        <span>{formatCategoryName(facet.category)}</span>
+                        <span className="opacity-75">{facet.productCount}</span>
+                    </span>
+                    <span className="block text-xs opacity-75">
+                        {facet.minPrice === facet.maxPrice
+                            ? formatPrice(facet.minPrice)
+                            : `${formatPrice(facet.minPrice)} - ${formatPrice(facet.maxPrice)}`}
+                        {facet.inStockCount < facet.productCount && ` · ${facet.inStockCount} in stock`}
+                    </span>
+                </button>
+            ))}
+        </nav>
+    );
+}
+
+export default CategoryFilter;
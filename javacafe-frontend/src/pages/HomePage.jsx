@@ -2,7 +2,7 @@ import { useState, useEffect } from 'react';
 import FeaturedItem from '../components/FeaturedItem';
 import Announcement from '../components/Announcement';
 import { Link } from 'react-router-dom';
-import { getMenuProducts, getProductDescription } from '../services/MenuService';
+import { getMenuProducts, getProductDescriptions } from '../services/MenuService';
 import { getProductImage } from '../assets/images/imageMap';
 import Snowfall from '../components/Snowfall';
 
@@ -78,17 +78,19 @@ function HomePage() {
                     }
                 }
                 
-                const featuredPromises = selectedProducts.slice(0, 6).map(async (product) => {
-                    let description = `Delicious ${product.name.toLowerCase()} from our ${product.category.toLowerCase()} collection.`;
-                    
-                    try {
-                        const descData = await getProductDescription(product.productId);
-                        if (descData && descData.description) {
-                            description = descData.description;
-                        }
-                    } catch (err) {
-                        console.warn(`Could not fetch description for product ${product.productId}:`, err);
-                    }
+                const featuredProducts = selectedProducts.slice(0, 6);
+
+                // One request for all featured descriptions instead of one per product
+                let descriptions = {};
+                try {
+                    descriptions = await getProductDescriptions(featuredProducts.map(p => p.productId));
+                } catch (err) {
+                    console.warn('Could not fetch featured product descriptions:', err);
+                }
+
+                const featured = featuredProducts.map((product) => {
+                    const description = descriptions[product.productId]
+                        || `Delicious ${product.name.toLowerCase()} from our ${product.category.toLowerCase()} collection.`;
                     
                     const productImage = getProductImage(product.name, product.category);
                     
@@ -104,7 +106,6 @@ function HomePage() {
                     };
                 });
                 
-                const featured = await Promise.all(featuredPromises);
                 setFeaturedItems(featured);
             } catch (err) {
                 console.error('Error fetching featured products:', err);
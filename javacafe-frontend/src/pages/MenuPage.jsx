@@ -2,6 +2,7 @@ import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { getProductImage } from '../assets/images/imageMap';
 import { getMenuProducts } from '../services/MenuService';
+import CategoryFilter from '../components/CategoryFilter';
 
 function MenuPage() {
     const navigate = useNavigate();
@@ -68,31 +69,10 @@ function MenuPage() {
                 <h2 className="text-2xl font-bold text-amber-900 mb-6 pb-3 border-b-2 border-amber-200">
                     Categories
                 </h2>
-                <nav className="space-y-2">
-                    <button
-                        onClick={() => setSelectedCategory(null)}
-                        className={`w-full text-left px-4 py-3 rounded-lg transition-colors ${
-                            selectedCategory === null
-                                ? 'bg-amber-600 text-white font-semibold'
-                                : 'text-amber-900 hover:bg-amber-100'
-                        }`}
-                    >
-                        All Categories
-                    </button>
-                    {allCategories.map((category) => (
-                        <button
-                            key={category}
-                            onClick={() => setSelectedCategory(category)}
-                            className={`w-full text-left px-4 py-3 rounded-lg transition-colors ${
-                                selectedCategory === category
-                                    ? 'bg-amber-600 text-white font-semibold'
-                                    : 'text-amber-900 hover:bg-amber-100'
-                            }`}
-                        >
-                            {formatCategoryName(category)}
-                        </button>
-                    ))}
-                </nav>
+                <CategoryFilter
+                    selectedCategory={selectedCategory}
+                    onSelect={setSelectedCategory}
+                />
             </aside>
 
             {/* Main Content Area */}
@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 
 function PlaceOrderPage() {
@@ -14,6 +14,9 @@ function PlaceOrderPage() {
     const [lastName, setLastName] = useState('');
     const [email, setEmail] = useState('');
 
+    // One key per checkout: a double-click or network retry returns the same order instead of a second one
+    const idempotencyKey = useRef(crypto.randomUUID());
+
     useEffect(() => {
         const savedCart = localStorage.getItem('cart');
         if (savedCart) {
@@ -85,6 +88,7 @@ function PlaceOrderPage() {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
+                    'Idempotency-Key': idempotencyKey.current,
                 },
                 body: JSON.stringify(orderData)
             });
@@ -98,7 +102,8 @@ function PlaceOrderPage() {
             setOrderId(orderResult.orderId);
             setOrderPlaced(true);
             
-            // Clear cart after successful order
+            // Clear cart after successful order; the next checkout gets a fresh key
+            idempotencyKey.current = crypto.randomUUID();
             localStorage.removeItem('cart');
             setCart([]);
         } catch (e) {
@@ -14,6 +14,15 @@ export const getMenuProducts = async () => {
     }
 };
 
+// Descriptions for several products in one request: { "<productId>": "<description>", ... }
+export const getProductDescriptions = async (productIds) => {
+    const response = await fetch(`/api/menu/descriptions?ids=${productIds.join(',')}`);
+    if (!response.ok) {
+        throw new Error('Failed to fetch product descriptions');
+    }
+    return response.json();
+};
+
 export const getProductDescription = async (productId) => {
     const response = await fetch(`/api/menu/description/${productId}`);
     if (!response.ok) {
@@ -22,3 +31,12 @@ export const getProductDescription = async (productId) => {
     return response.json();
 };
 
+
+// One entry per category: { category, productCount, inStockCount, minPrice, maxPrice }
+export const getMenuCategories = async () => {
+    const response = await fetch('/api/menu/categories');
+    if (!response.ok) {
+        throw new Error('Failed to fetch menu categories');
+    }
+    return response.json();
+};